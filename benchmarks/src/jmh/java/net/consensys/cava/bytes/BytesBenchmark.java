@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.bytes;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BytesBenchmark {
+  private static final long SEED = 0x5eed;
+
+  @Param({"32", "256", "4096"})
+  public int size;
+
+  private Bytes array;
+  private Bytes arrayCopy;
+  private Bytes buffer;
+  private Bytes bufferCopy;
+  private Bytes32 bytes32;
+  private Bytes32 bytes32Copy;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(SEED);
+    byte[] value = new byte[size];
+    random.nextBytes(value);
+    array = Bytes.wrap(value);
+    arrayCopy = Bytes.wrap(value.clone());
+    buffer = Bytes.wrapByteBuffer(ByteBuffer.wrap(value.clone()));
+    bufferCopy = Bytes.wrapByteBuffer(ByteBuffer.wrap(value.clone()));
+
+    byte[] value32 = new byte[32];
+    random.nextBytes(value32);
+    bytes32 = Bytes32.wrap(value32);
+    bytes32Copy = Bytes32.wrap(value32.clone());
+  }
+
+  @Benchmark
+  public boolean equalsArray() {
+    return array.equals(arrayCopy);
+  }
+
+  @Benchmark
+  public boolean equalsBuffer() {
+    return buffer.equals(bufferCopy);
+  }
+
+  @Benchmark
+  public boolean equalsBytes32() {
+    return bytes32.equals(bytes32Copy);
+  }
+
+  @Benchmark
+  public int hashCodeArray() {
+    return array.hashCode();
+  }
+
+  @Benchmark
+  public int hashCodeBuffer() {
+    return buffer.hashCode();
+  }
+
+  @Benchmark
+  public int hashCodeBytes32() {
+    return bytes32.hashCode();
+  }
+
+  @Benchmark
+  public Bytes sliceArray() {
+    return array.slice(1, size / 2);
+  }
+
+  @Benchmark
+  public Bytes sliceBuffer() {
+    return buffer.slice(1, size / 2);
+  }
+
+  @Benchmark
+  public Bytes sliceAndCopyArray() {
+    return array.slice(1, size / 2).copy();
+  }
+}
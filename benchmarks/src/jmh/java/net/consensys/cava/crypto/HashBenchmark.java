@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.crypto;
+
+import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.bytes.Bytes32;
+import net.consensys.cava.crypto.sodium.GenericHash;
+import net.consensys.cava.crypto.sodium.SHA256Hash;
+import net.consensys.cava.crypto.sodium.Sodium;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.Security;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashBenchmark {
+  private static final long SEED = 0x5eed;
+
+  @Param({"32", "532", "4096", "1048576"})
+  public int size;
+
+  private Bytes input;
+
+  @Setup
+  public void setup() {
+    Security.addProvider(new BouncyCastleProvider());
+    byte[] value = new byte[size];
+    new Random(SEED).nextBytes(value);
+    input = Bytes.wrap(value);
+  }
+
+  // The benchmarks below compare the JCA and native implementations directly, and fail if the sodium native
+  // library is not available
+
+  private static void checkSodium() {
+    if (!Sodium.isAvailable()) {
+      throw new IllegalStateException("Sodium native library is not available");
+    }
+  }
+
+  @Benchmark
+  public Bytes32 keccak256() {
+    return Hash.keccak256(input);
+  }
+
+  @Benchmark
+  public Bytes32 sha2_256() {
+    return Hash.sha2_256(input);
+  }
+
+  @Benchmark
+  public Bytes sha2_256Jca() throws NoSuchAlgorithmException {
+    return Hash.digestUsingAlgorithm(input, "SHA-256");
+  }
+
+  @Benchmark
+  public Bytes32 sha2_256Sodium() {
+    checkSodium();
+    return SHA256Hash.hash(input);
+  }
+
+  @Benchmark
+  public Bytes32 blake2b_256() {
+    return Hash.blake2b_256(input);
+  }
+
+  @Benchmark
+  public Bytes blake2b_256Jca() throws NoSuchAlgorithmException {
+    return Hash.digestUsingAlgorithm(input, "BLAKE2B-256");
+  }
+
+  @Benchmark
+  public Bytes blake2b_256Sodium() {
+    checkSodium();
+    return GenericHash.hash(32, input);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.crypto;
+
+import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.bytes.Bytes32;
+import net.consensys.cava.crypto.SECP256K1.KeyPair;
+import net.consensys.cava.crypto.SECP256K1.PrivateKey;
+import net.consensys.cava.crypto.SECP256K1.PublicKey;
+import net.consensys.cava.crypto.SECP256K1.Signature;
+
+import java.security.Security;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SECP256K1Benchmark {
+  private static final long SEED = 0x5eed;
+
+  private KeyPair keyPair;
+  private Bytes data;
+  private Signature signature;
+
+  @Setup
+  public void setup() {
+    Security.addProvider(new BouncyCastleProvider());
+    Random random = new Random(SEED);
+    byte[] privateKey = new byte[32];
+    random.nextBytes(privateKey);
+    // ensure the key is less than the curve order
+    privateKey[0] = 0x01;
+    keyPair = KeyPair.create(PrivateKey.create(Bytes32.wrap(privateKey)));
+
+    byte[] value = new byte[128];
+    random.nextBytes(value);
+    data = Bytes.wrap(value);
+    signature = SECP256K1.sign(data, keyPair);
+  }
+
+  @Benchmark
+  public Signature sign() {
+    return SECP256K1.sign(data, keyPair);
+  }
+
+  @Benchmark
+  public boolean verify() {
+    return SECP256K1.verify(data, signature, keyPair.getPublicKey());
+  }
+
+  @Benchmark
+  public PublicKey recoverFromSignature() {
+    return PublicKey.recoverFromSignature(data, signature);
+  }
+}
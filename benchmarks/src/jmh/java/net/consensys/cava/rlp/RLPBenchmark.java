@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.rlp;
+
+import net.consensys.cava.bytes.Bytes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RLPBenchmark {
+  private static final long SEED = 0x5eed;
+
+  @Param({"4", "17", "256"})
+  public int elements;
+
+  @Param({"1", "32", "1024"})
+  public int elementSize;
+
+  private List<Bytes> values;
+  private Bytes encoded;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(SEED);
+    values = new ArrayList<>(elements);
+    for (int i = 0; i < elements; ++i) {
+      byte[] value = new byte[elementSize];
+      random.nextBytes(value);
+      values.add(Bytes.wrap(value));
+    }
+    encoded = encodeList();
+  }
+
+  @Benchmark
+  public Bytes encodeList() {
+    return RLP.encodeList(writer -> {
+      for (Bytes value : values) {
+        writer.writeValue(value);
+      }
+    });
+  }
+
+  @Benchmark
+  public List<Bytes> decodeList() {
+    return RLP.decodeList(encoded, reader -> {
+      List<Bytes> result = new ArrayList<>(elements);
+      while (!reader.isComplete()) {
+        result.add(reader.readValue());
+      }
+      return result;
+    });
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.trie.experimental;
+
+import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.bytes.Bytes32;
+
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link MerklePatriciaTrie}.
+ *
+ * <p>
+ * The trie is accessed through its asynchronous API, so the results include the cost of dispatching to and from the
+ * coroutine used for each operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MerklePatriciaTrieBenchmark {
+  private static final long SEED = 0x5eed;
+
+  @Param({"1000", "100000"})
+  public int entries;
+
+  private List<Bytes32> keys;
+  private List<Bytes> values;
+  private MerklePatriciaTrie<Bytes> trie;
+  private int next;
+
+  @Setup
+  public void setup() throws Exception {
+    Security.addProvider(new BouncyCastleProvider());
+    Random random = new Random(SEED);
+    keys = new ArrayList<>(entries);
+    values = new ArrayList<>(entries);
+    trie = MerklePatriciaTrie.storingBytes();
+    for (int i = 0; i < entries; ++i) {
+      byte[] key = new byte[32];
+      random.nextBytes(key);
+      byte[] value = new byte[1 + random.nextInt(64)];
+      random.nextBytes(value);
+      keys.add(Bytes32.wrap(key));
+      values.add(Bytes.wrap(value));
+      trie.putAsync(keys.get(i), values.get(i)).join();
+    }
+    trie.rootHash();
+  }
+
+  @Benchmark
+  public Optional<Bytes> get() throws Exception {
+    return trie.getAsync(nextKey()).get();
+  }
+
+  @Benchmark
+  public void put() throws Exception {
+    int index = nextIndex();
+    trie.putAsync(keys.get(index), values.get(entries - 1 - index)).join();
+  }
+
+  @Benchmark
+  public Bytes32 putAndRootHash() throws Exception {
+    put();
+    return trie.rootHash();
+  }
+
+  private Bytes32 nextKey() {
+    return keys.get(nextIndex());
+  }
+
+  private int nextIndex() {
+    int index = next;
+    next = (next + 1) % entries;
+    return index;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.units.bigints;
+
+import net.consensys.cava.bytes.Bytes32;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UInt256Benchmark {
+  private static final long SEED = 0x5eed;
+
+  private UInt256 large;
+  private UInt256 other;
+  private UInt256 small;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(SEED);
+    byte[] value = new byte[32];
+    random.nextBytes(value);
+    large = UInt256.fromBytes(Bytes32.wrap(value));
+    random.nextBytes(value);
+    other = UInt256.fromBytes(Bytes32.wrap(value));
+    small = UInt256.valueOf(random.nextInt() & Integer.MAX_VALUE);
+  }
+
+  @Benchmark
+  public UInt256 add() {
+    return large.add(other);
+  }
+
+  @Benchmark
+  public UInt256 subtract() {
+    return large.subtract(other);
+  }
+
+  @Benchmark
+  public UInt256 multiply() {
+    return large.multiply(other);
+  }
+
+  @Benchmark
+  public UInt256 multiplyMod() {
+    return large.multiplyMod(other, small);
+  }
+
+  @Benchmark
+  public UInt256 divide() {
+    return large.divide(small);
+  }
+
+  @Benchmark
+  public UInt256 mod() {
+    return large.mod(small);
+  }
+
+  @Benchmark
+  public UInt256 pow() {
+    return large.pow(17);
+  }
+}
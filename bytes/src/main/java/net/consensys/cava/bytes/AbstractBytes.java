@@ -39,11 +39,19 @@ public abstract class AbstractBytes implements Bytes {
     }
 
     Bytes other = (Bytes) obj;
-    if (this.size() != other.size()) {
+    int size = size();
+    if (size != other.size()) {
       return false;
     }
 
-    for (int i = 0; i < size(); i++) {
+    // compare 8 bytes at a time, which most implementations read using a single access
+    int i = 0;
+    for (; i <= size - 8; i += 8) {
+      if (this.getLong(i) != other.getLong(i)) {
+        return false;
+      }
+    }
+    for (; i < size; i++) {
       if (this.get(i) != other.get(i)) {
         return false;
       }
@@ -51,10 +59,20 @@ public abstract class AbstractBytes implements Bytes {
     return true;
   }
 
+  /**
+   * Compute a hash code for this value.
+   *
+   * <p>
+   * All implementations must return the same hash code for equal values, which is the result of
+   * {@link java.util.Arrays#hashCode(byte[])} for the array of bytes.
+   *
+   * @return A hash code for this value.
+   */
   @Override
   public int hashCode() {
     int result = 1;
-    for (int i = 0; i < size(); i++) {
+    int size = size();
+    for (int i = 0; i < size; i++) {
       result = 31 * result + get(i);
     }
     return result;
@@ -18,6 +18,7 @@ import static com.google.common.base.Preconditions.checkElementIndex;
 import java.security.MessageDigest;
 import java.util.Arrays;
 
+import com.google.common.primitives.UnsignedBytes;
 import io.vertx.core.buffer.Buffer;
 
 class ArrayWrappingBytes extends AbstractBytes {
@@ -60,6 +61,36 @@ class ArrayWrappingBytes extends AbstractBytes {
     return bytes[offset + i];
   }
 
+  @Override
+  public int getInt(int i) {
+    checkElementIndex(i, length);
+    if (i > (length - 4)) {
+      return super.getInt(i);
+    }
+    int index = offset + i;
+    return (bytes[index] & 0xFF) << 24
+        | (bytes[index + 1] & 0xFF) << 16
+        | (bytes[index + 2] & 0xFF) << 8
+        | (bytes[index + 3] & 0xFF);
+  }
+
+  @Override
+  public long getLong(int i) {
+    checkElementIndex(i, length);
+    if (i > (length - 8)) {
+      return super.getLong(i);
+    }
+    int index = offset + i;
+    return (bytes[index] & 0xFFL) << 56
+        | (bytes[index + 1] & 0xFFL) << 48
+        | (bytes[index + 2] & 0xFFL) << 40
+        | (bytes[index + 3] & 0xFFL) << 32
+        | (bytes[index + 4] & 0xFFL) << 24
+        | (bytes[index + 5] & 0xFFL) << 16
+        | (bytes[index + 6] & 0xFFL) << 8
+        | (bytes[index + 7] & 0xFFL);
+  }
+
   @Override
   public Bytes slice(int i, int length) {
     if (i == 0 && length == this.length) {
@@ -109,6 +140,26 @@ class ArrayWrappingBytes extends AbstractBytes {
     return i;
   }
 
+  @Override
+  public int compareTo(Bytes other) {
+    if (!(other instanceof ArrayWrappingBytes)) {
+      return super.compareTo(other);
+    }
+    ArrayWrappingBytes o = (ArrayWrappingBytes) other;
+    if (wrapsWholeArray() && o.wrapsWholeArray()) {
+      // compares 8 bytes at a time where supported by the platform
+      return Integer.signum(UnsignedBytes.lexicographicalComparator().compare(bytes, o.bytes));
+    }
+    int minLength = Math.min(length, o.length);
+    for (int i = 0; i < minLength; i++) {
+      int cmp = Integer.compare(bytes[offset + i] & 0xFF, o.bytes[o.offset + i] & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return Integer.compare(length, o.length);
+  }
+
   @Override
   public void update(MessageDigest digest) {
     digest.update(bytes, offset, length);
@@ -155,6 +206,10 @@ class ArrayWrappingBytes extends AbstractBytes {
     if (length != other.length) {
       return false;
     }
+    if (wrapsWholeArray() && other.wrapsWholeArray()) {
+      // intrinsified by the JVM on most platforms
+      return Arrays.equals(bytes, other.bytes);
+    }
     for (int i = 0; i < length; ++i) {
       if (bytes[offset + i] != other.bytes[other.offset + i]) {
         return false;
@@ -165,14 +220,20 @@ class ArrayWrappingBytes extends AbstractBytes {
 
   @Override
   public int hashCode() {
+    if (wrapsWholeArray()) {
+      return Arrays.hashCode(bytes);
+    }
     int result = 1;
-    int size = size();
-    for (int i = 0; i < size; i++) {
+    for (int i = 0; i < length; i++) {
       result = 31 * result + bytes[offset + i];
     }
     return result;
   }
 
+  private boolean wrapsWholeArray() {
+    return offset == 0 && length == bytes.length;
+  }
+
   @Override
   public byte[] toArray() {
     return Arrays.copyOfRange(bytes, offset, offset + length);
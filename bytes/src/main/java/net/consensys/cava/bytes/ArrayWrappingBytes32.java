@@ -16,12 +16,34 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 final class ArrayWrappingBytes32 extends ArrayWrappingBytes implements Bytes32 {
 
+  // Only set when this value owns its array, as otherwise the wrapped bytes may change.
+  private final boolean immutable;
+  private int cachedHashCode;
+
   ArrayWrappingBytes32(byte[] bytes) {
     this(checkLength(bytes), 0);
   }
 
   ArrayWrappingBytes32(byte[] bytes, int offset) {
-    super(checkLength(bytes, offset), offset, SIZE);
+    this(checkLength(bytes, offset), offset, false);
+  }
+
+  private ArrayWrappingBytes32(byte[] bytes, int offset, boolean immutable) {
+    super(bytes, offset, SIZE);
+    this.immutable = immutable;
+  }
+
+  /**
+   * Create a value that takes ownership of an array, which must not be modified or exposed afterwards.
+   *
+   * <p>
+   * As such a value can never change, its hash code is cached.
+   *
+   * @param bytes The array to take ownership of.
+   * @return A value wrapping the array.
+   */
+  static ArrayWrappingBytes32 owning(byte[] bytes) {
+    return new ArrayWrappingBytes32(checkLength(bytes), 0, true);
   }
 
   // Ensures a proper error message.
@@ -46,11 +68,24 @@ final class ArrayWrappingBytes32 extends ArrayWrappingBytes implements Bytes32 {
     if (offset == 0 && length == bytes.length) {
       return this;
     }
-    return new ArrayWrappingBytes32(toArray());
+    return owning(toArray());
   }
 
   @Override
   public MutableBytes32 mutableCopy() {
     return new MutableArrayWrappingBytes32(toArray());
   }
+
+  @Override
+  public int hashCode() {
+    if (!immutable) {
+      return super.hashCode();
+    }
+    int result = cachedHashCode;
+    if (result == 0) {
+      result = super.hashCode();
+      cachedHashCode = result;
+    }
+    return result;
+  }
 }
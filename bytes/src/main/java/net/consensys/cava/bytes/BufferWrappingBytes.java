@@ -100,7 +100,13 @@ class BufferWrappingBytes extends AbstractBytes {
 
   @Override
   public int hashCode() {
-    return buffer.hashCode();
+    // the buffer's own hash code is not consistent with other implementations
+    int result = 1;
+    int size = size();
+    for (int i = 0; i < size; i++) {
+      result = 31 * result + buffer.getByte(i);
+    }
+    return result;
   }
 
   // MUST be overridden by mutable implementations
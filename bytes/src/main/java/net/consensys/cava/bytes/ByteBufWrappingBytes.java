@@ -101,7 +101,13 @@ class ByteBufWrappingBytes extends AbstractBytes {
 
   @Override
   public int hashCode() {
-    return byteBuf.hashCode();
+    // the buffer's own hash code is not consistent with other implementations
+    int result = 1;
+    int size = size();
+    for (int i = 0; i < size; i++) {
+      result = 31 * result + byteBuf.getByte(i);
+    }
+    return result;
   }
 
   // MUST be overridden by mutable implementations
@@ -16,6 +16,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkElementIndex;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
 class ByteBufferWrappingBytes extends AbstractBytes {
@@ -41,7 +42,9 @@ class ByteBufferWrappingBytes extends AbstractBytes {
         bufferLength - offset,
         offset);
 
-    this.byteBuffer = byteBuffer;
+    // multi-byte values are always read in big-endian order, regardless of the order of the provided buffer
+    this.byteBuffer =
+        byteBuffer.order() == ByteOrder.BIG_ENDIAN ? byteBuffer : byteBuffer.duplicate().order(ByteOrder.BIG_ENDIAN);
     this.offset = offset;
     this.length = length;
   }
@@ -87,6 +90,15 @@ class ByteBufferWrappingBytes extends AbstractBytes {
     return new ByteBufferWrappingBytes(byteBuffer, offset + i, length);
   }
 
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < length; i++) {
+      result = 31 * result + byteBuffer.get(offset + i);
+    }
+    return result;
+  }
+
   // MUST be overridden by mutable implementations
   @Override
   public Bytes copy() {
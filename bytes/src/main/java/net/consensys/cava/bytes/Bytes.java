@@ -15,8 +15,10 @@ package net.consensys.cava.bytes;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkElementIndex;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static java.lang.String.format;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.security.MessageDigest;
@@ -32,8 +34,11 @@ import io.vertx.core.buffer.Buffer;
  * This interface makes no thread-safety guarantee, and a {@link Bytes} value is generally not thread safe. However,
  * specific implementations may be thread-safe. For instance, the value returned by {@link #copy} is guaranteed to be
  * thread-safe as it is immutable.
+ *
+ * <p>
+ * Values are ordered by comparing their bytes as unsigned values, in lexicographic order.
  */
-public interface Bytes {
+public interface Bytes extends Comparable<Bytes> {
 
   /**
    * The empty value (with 0 bytes).
@@ -407,6 +412,45 @@ public interface Bytes {
     return BytesValues.fromHexString(str, destinationSize, false);
   }
 
+  /**
+   * Parse a range of a character sequence containing a hexadecimal string into a {@link Bytes} value.
+   *
+   * <p>
+   * This method requires that the range have an even length. The characters are read directly from {@code str}, so no
+   * intermediate string is created.
+   *
+   * @param str The character sequence containing the hexadecimal string, which may or may not start with "0x".
+   * @param start The index of the first character of the hexadecimal string in {@code str}.
+   * @param end The index after the last character of the hexadecimal string in {@code str}.
+   * @return The value corresponding to the hexadecimal string.
+   * @throws IndexOutOfBoundsException if {@code start} and {@code end} are not a valid range of {@code str}.
+   * @throws IllegalArgumentException if the range does not correspond to valid hexadecimal representation, or is of an
+   *         odd length.
+   */
+  static Bytes fromHexString(CharSequence str, int start, int end) {
+    checkNotNull(str);
+    return BytesValues.fromHexString(str, start, end, -1, false);
+  }
+
+  /**
+   * Parse a range of a character sequence containing a hexadecimal string into a {@link Bytes} value.
+   *
+   * <p>
+   * This method is lenient in that the range may of an odd length, in which case it will behave exactly as if it had an
+   * additional 0 in front. The characters are read directly from {@code str}, so no intermediate string is created.
+   *
+   * @param str The character sequence containing the hexadecimal string, which may or may not start with "0x".
+   * @param start The index of the first character of the hexadecimal string in {@code str}.
+   * @param end The index after the last character of the hexadecimal string in {@code str}.
+   * @return The value corresponding to the hexadecimal string.
+   * @throws IndexOutOfBoundsException if {@code start} and {@code end} are not a valid range of {@code str}.
+   * @throws IllegalArgumentException if the range does not correspond to valid hexadecimal representation.
+   */
+  static Bytes fromHexStringLenient(CharSequence str, int start, int end) {
+    checkNotNull(str);
+    return BytesValues.fromHexString(str, start, end, -1, true);
+  }
+
   /** @return The number of bytes this value represents. */
   int size();
 
@@ -1028,15 +1072,60 @@ public interface Bytes {
    */
   default int commonPrefixLength(Bytes other) {
     checkNotNull(other);
-    int ourSize = size();
-    int otherSize = other.size();
+    int minSize = Math.min(size(), other.size());
     int i = 0;
-    while (i < ourSize && i < otherSize && get(i) == other.get(i)) {
+    // compare 8 bytes at a time, which most implementations read using a single access
+    for (; i <= minSize - 8; i += 8) {
+      long diff = getLong(i) ^ other.getLong(i);
+      if (diff != 0) {
+        return i + (Long.numberOfLeadingZeros(diff) >>> 3);
+      }
+    }
+    while (i < minSize && get(i) == other.get(i)) {
       i++;
     }
     return i;
   }
 
+  /**
+   * Return the index of the first byte that differs between this set of bytes and another.
+   *
+   * <p>
+   * If one value is a prefix of the other, the size of the smaller value is returned.
+   *
+   * @param other The bytes to compare to.
+   * @return The index of the first byte that differs, or {@code -1} if both values are equal.
+   */
+  default int mismatch(Bytes other) {
+    int commonPrefixLength = commonPrefixLength(other);
+    if (commonPrefixLength == size() && commonPrefixLength == other.size()) {
+      return -1;
+    }
+    return commonPrefixLength;
+  }
+
+  /**
+   * Compare this value and the provided one in unsigned lexicographic order.
+   *
+   * <p>
+   * Bytes are compared as unsigned values, and a value sorts before any longer value that it is a prefix of.
+   *
+   * @param other The bytes to compare to.
+   * @return A negative integer, zero, or a positive integer as this value is less than, equal to, or greater than
+   *         {@code other}.
+   */
+  @Override
+  default int compareTo(Bytes other) {
+    int mismatch = mismatch(other);
+    if (mismatch < 0) {
+      return 0;
+    }
+    if (mismatch == size() || mismatch == other.size()) {
+      return Integer.compare(size(), other.size());
+    }
+    return Integer.compare(get(mismatch) & 0xFF, other.get(mismatch) & 0xFF);
+  }
+
   /**
    * Return a slice over the common prefix between this set of bytes and another.
    *
@@ -1115,17 +1204,64 @@ public interface Bytes {
    * @return This value represented as hexadecimal, starting with "0x".
    */
   default String toHexString() {
-    int size = size();
-    StringBuilder r = new StringBuilder(2 + size * 2);
-    r.append("0x");
+    char[] chars = new char[BytesValues.hexLength(this)];
+    BytesValues.writeHex(this, chars, 0);
+    return new String(chars);
+  }
 
-    for (int i = 0; i < size; i++) {
-      byte b = get(i);
-      r.append(AbstractBytes.HEX_CODE[b >> 4 & 15]);
-      r.append(AbstractBytes.HEX_CODE[b & 15]);
-    }
+  /**
+   * Write the hexadecimal representation of this value, starting with "0x", to a character array.
+   *
+   * @param destination The array to write to, which must have at least {@code 2 + 2 * size()} characters from
+   *        {@code offset}.
+   * @param offset The index in {@code destination} of the first character to write.
+   * @return The index in {@code destination} after the last character written.
+   * @throws IndexOutOfBoundsException if {@code destination} is too small.
+   */
+  default int writeHexTo(char[] destination, int offset) {
+    checkNotNull(destination);
+    checkPositionIndexes(offset, offset + BytesValues.hexLength(this), destination.length);
+    return BytesValues.writeHex(this, destination, offset);
+  }
 
-    return r.toString();
+  /**
+   * Append the hexadecimal representation of this value, starting with "0x", to a {@link StringBuilder}.
+   *
+   * @param builder The builder to append to.
+   * @return The provided builder.
+   */
+  default StringBuilder appendHexTo(StringBuilder builder) {
+    checkNotNull(builder);
+    builder.ensureCapacity(builder.length() + BytesValues.hexLength(this));
+    BytesValues.appendHex(this, builder);
+    return builder;
+  }
+
+  /**
+   * Append the hexadecimal representation of this value, starting with "0x", to an {@link Appendable}.
+   *
+   * @param appendable The appendable to append to.
+   * @param <T> The type of the appendable.
+   * @return The provided appendable.
+   * @throws IOException If an I/O error occurs while appending.
+   */
+  default <T extends Appendable> T appendHexTo(T appendable) throws IOException {
+    checkNotNull(appendable);
+    BytesValues.appendHex(this, appendable);
+    return appendable;
+  }
+
+  /**
+   * Append the hexadecimal representation of this value, starting with "0x", to a Vert.x {@link Buffer}.
+   *
+   * <p>
+   * The characters are appended as US-ASCII bytes.
+   *
+   * @param buffer The {@link Buffer} to which to append the hexadecimal representation of this value.
+   */
+  default void appendHexToBuffer(Buffer buffer) {
+    checkNotNull(buffer);
+    BytesValues.appendHex(this, buffer);
   }
 
   /** @return This value represented as a minimal hexadecimal string (without any leading zero). */
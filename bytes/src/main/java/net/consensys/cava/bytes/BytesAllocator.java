@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.bytes;
+
+/**
+ * An allocator of {@link ReleasableBytes} values.
+ */
+public interface BytesAllocator {
+
+  /**
+   * An allocator that allocates values on the heap.
+   *
+   * <p>
+   * Memory is reclaimed by the garbage collector, so releasing values only updates their reference count.
+   */
+  BytesAllocator HEAP = size -> new HeapReleasableBytes(new byte[size]);
+
+  /**
+   * Allocate a new value, filled with zeros.
+   *
+   * @param size The size of the value.
+   * @return A new value, with a reference count of 1.
+   * @throws IllegalArgumentException If {@code size} is negative.
+   */
+  ReleasableBytes allocate(int size);
+}
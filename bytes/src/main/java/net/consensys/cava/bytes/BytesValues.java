@@ -12,7 +12,12 @@
  */
 package net.consensys.cava.bytes;
 
-import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import io.vertx.core.buffer.Buffer;
 
 final class BytesValues {
   private BytesValues() {}
@@ -20,24 +25,96 @@ final class BytesValues {
   static final int MAX_UNSIGNED_SHORT = (1 << 16) - 1;
   static final long MAX_UNSIGNED_INT = (1L << 32) - 1;
 
-  static Bytes fromHexString(String str, int destSize, boolean lenient) {
-    return Bytes.wrap(fromRawHexString(str, destSize, lenient));
+  // the two hexadecimal digits of each byte, indexed by the unsigned value of the byte
+  private static final char[] HEX_DIGITS = new char[512];
+  // the value of each hexadecimal digit, indexed by character, or -1 for characters that are not hexadecimal digits
+  private static final byte[] HEX_VALUES = new byte[128];
+
+  static {
+    for (int i = 0; i < 256; ++i) {
+      HEX_DIGITS[2 * i] = AbstractBytes.HEX_CODE[i >> 4];
+      HEX_DIGITS[2 * i + 1] = AbstractBytes.HEX_CODE[i & 15];
+    }
+    Arrays.fill(HEX_VALUES, (byte) -1);
+    for (int i = 0; i < 10; ++i) {
+      HEX_VALUES['0' + i] = (byte) i;
+    }
+    for (int i = 0; i < 6; ++i) {
+      HEX_VALUES['A' + i] = (byte) (10 + i);
+      HEX_VALUES['a' + i] = (byte) (10 + i);
+    }
+  }
+
+  static int hexLength(Bytes bytes) {
+    return 2 + 2 * bytes.size();
+  }
+
+  static int writeHex(Bytes bytes, char[] destination, int offset) {
+    int size = bytes.size();
+    destination[offset++] = '0';
+    destination[offset++] = 'x';
+    for (int i = 0; i < size; i++) {
+      int b = (bytes.get(i) & 0xFF) << 1;
+      destination[offset++] = HEX_DIGITS[b];
+      destination[offset++] = HEX_DIGITS[b + 1];
+    }
+    return offset;
+  }
+
+  static void appendHex(Bytes bytes, Buffer buffer) {
+    int size = bytes.size();
+    buffer.appendByte((byte) '0').appendByte((byte) 'x');
+    for (int i = 0; i < size; i++) {
+      int b = (bytes.get(i) & 0xFF) << 1;
+      buffer.appendByte((byte) HEX_DIGITS[b]).appendByte((byte) HEX_DIGITS[b + 1]);
+    }
   }
 
-  static byte[] fromRawHexString(String str, int destSize, boolean lenient) {
-    String hex = str;
-    if (str.startsWith("0x")) {
-      hex = str.substring(2);
+  static void appendHex(Bytes bytes, StringBuilder builder) {
+    int size = bytes.size();
+    builder.append("0x");
+    for (int i = 0; i < size; i++) {
+      int b = (bytes.get(i) & 0xFF) << 1;
+      builder.append(HEX_DIGITS[b]).append(HEX_DIGITS[b + 1]);
     }
+  }
+
+  static void appendHex(Bytes bytes, Appendable appendable) throws IOException {
+    int size = bytes.size();
+    appendable.append("0x");
+    for (int i = 0; i < size; i++) {
+      int b = (bytes.get(i) & 0xFF) << 1;
+      appendable.append(HEX_DIGITS[b]).append(HEX_DIGITS[b + 1]);
+    }
+  }
 
-    int len = hex.length();
+  static Bytes fromHexString(CharSequence str, int destSize, boolean lenient) {
+    return Bytes.wrap(fromRawHexString(str, 0, str.length(), destSize, lenient));
+  }
+
+  static Bytes fromHexString(CharSequence str, int start, int end, int destSize, boolean lenient) {
+    return Bytes.wrap(fromRawHexString(str, start, end, destSize, lenient));
+  }
+
+  static byte[] fromRawHexString(CharSequence str, int destSize, boolean lenient) {
+    return fromRawHexString(str, 0, str.length(), destSize, lenient);
+  }
+
+  static byte[] fromRawHexString(CharSequence str, int start, int end, int destSize, boolean lenient) {
+    checkPositionIndexes(start, end, str.length());
+    int hexStart = start;
+    if (end - start >= 2 && str.charAt(start) == '0' && str.charAt(start + 1) == 'x') {
+      hexStart += 2;
+    }
+
+    int len = end - hexStart;
     int idxShift = 0;
     if (len % 2 != 0) {
       if (!lenient) {
-        throw new IllegalArgumentException("Invalid odd-length hex binary representation '" + str + "'");
+        throw new IllegalArgumentException(
+            "Invalid odd-length hex binary representation '" + str.subSequence(start, end) + "'");
       }
-
-      hex = "0" + hex;
+      // behave as if there was an additional 0 in front
       len += 1;
       idxShift = 1;
     }
@@ -45,50 +122,37 @@ final class BytesValues {
     int size = len / 2;
     if (destSize < 0) {
       destSize = size;
-    } else {
-      checkArgument(
-          size <= destSize,
-          "Hex value %s is too big: expected at most %s bytes but got %s",
-          str,
-          destSize,
-          size);
+    } else if (size > destSize) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Hex value %s is too big: expected at most %s bytes but got %s",
+              str.subSequence(start, end),
+              destSize,
+              size));
     }
 
     byte[] out = new byte[destSize];
 
     int destOffset = (destSize - size);
-    for (int i = 0; i < len; i += 2) {
-      int h = hexToBin(hex.charAt(i));
-      int l = hexToBin(hex.charAt(i + 1));
-      if (h == -1) {
+    int h = 0;
+    for (int i = idxShift; i < len; i++) {
+      int index = hexStart + i - idxShift;
+      char ch = str.charAt(index);
+      int v = ch < 128 ? HEX_VALUES[ch] : -1;
+      if (v == -1) {
         throw new IllegalArgumentException(
             String.format(
                 "Illegal character '%c' found at index %d in hex binary representation '%s'",
-                hex.charAt(i),
-                i - idxShift,
-                str));
+                ch,
+                index - hexStart,
+                str.subSequence(start, end)));
       }
-      if (l == -1) {
-        throw new IllegalArgumentException(
-            String.format(
-                "Illegal character '%c' found at index %d in hex binary representation '%s'",
-                hex.charAt(i + 1),
-                i + 1 - idxShift,
-                str));
+      if ((i & 1) == 0) {
+        h = v;
+      } else {
+        out[destOffset + (i / 2)] = (byte) (h << 4 | v);
       }
-
-      out[destOffset + (i / 2)] = (byte) (h * 16 + l);
     }
     return out;
   }
-
-  private static int hexToBin(char ch) {
-    if ('0' <= ch && ch <= '9') {
-      return ch - 48;
-    } else if ('A' <= ch && ch <= 'F') {
-      return ch - 65 + 10;
-    } else {
-      return 'a' <= ch && ch <= 'f' ? ch - 97 + 10 : -1;
-    }
-  }
 }
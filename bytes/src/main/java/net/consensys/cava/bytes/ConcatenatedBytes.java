@@ -15,13 +15,32 @@ package net.consensys.cava.bytes;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkElementIndex;
 
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import io.vertx.core.buffer.Buffer;
+
 final class ConcatenatedBytes extends AbstractBytes {
 
   private final Bytes[] values;
+  // offsets[i] is the index of the first byte of values[i], and offsets[values.length] is the total size
+  private final int[] offsets;
   private final int size;
+  // the index of the value containing the last byte accessed, which makes sequential access constant time
+  private int lastValue;
 
   private ConcatenatedBytes(Bytes[] values, int totalSize) {
     this.values = values;
+    this.offsets = new int[values.length + 1];
+    int offset = 0;
+    for (int i = 0; i < values.length; ++i) {
+      offsets[i] = offset;
+      offset += values[i].size();
+    }
+    if (offset != totalSize) {
+      throw new IllegalStateException("element sizes do not match total size");
+    }
+    offsets[values.length] = offset;
     this.size = totalSize;
   }
 
@@ -35,6 +54,7 @@ final class ConcatenatedBytes extends AbstractBytes {
 
     int count = 0;
     int totalSize = 0;
+    boolean flat = true;
 
     for (Bytes value : values) {
       int size = value.size();
@@ -45,16 +65,20 @@ final class ConcatenatedBytes extends AbstractBytes {
       }
       if (value instanceof ConcatenatedBytes) {
         count += ((ConcatenatedBytes) value).values.length;
+        flat = false;
       } else if (size != 0) {
         count += 1;
+      } else {
+        flat = false;
       }
     }
 
     if (count == 0) {
       return Bytes.EMPTY;
     }
-    if (count == values.length) {
-      return new ConcatenatedBytes(values, totalSize);
+    if (flat) {
+      // a single part needs no offsets index
+      return (count == 1) ? values[0] : new ConcatenatedBytes(values, totalSize);
     }
 
     Bytes[] concatenated = new Bytes[count];
@@ -68,6 +92,9 @@ final class ConcatenatedBytes extends AbstractBytes {
         concatenated[i++] = value;
       }
     }
+    if (count == 1) {
+      return concatenated[0];
+    }
     return new ConcatenatedBytes(concatenated, totalSize);
   }
 
@@ -79,14 +106,8 @@ final class ConcatenatedBytes extends AbstractBytes {
   @Override
   public byte get(int i) {
     checkElementIndex(i, size);
-    for (Bytes value : values) {
-      int vSize = value.size();
-      if (i < vSize) {
-        return value.get(i);
-      }
-      i -= vSize;
-    }
-    throw new IllegalStateException("element sizes do not match total size");
+    int j = valueIndex(i);
+    return values[j].get(i - offsets[j]);
   }
 
   @Override
@@ -107,47 +128,54 @@ final class ConcatenatedBytes extends AbstractBytes {
         size - i,
         i);
 
-    int j = 0;
-    int vSize;
-    while (true) {
-      vSize = values[j].size();
-      if (i < vSize) {
-        break;
-      }
-      i -= vSize;
-      ++j;
+    int end = i + length;
+    int first = valueIndex(i);
+    int last = valueIndex(end - 1);
+    if (first == last) {
+      return values[first].slice(i - offsets[first], length);
     }
 
-    if ((i + length) < vSize) {
-      return values[j].slice(i, length);
-    }
-
-    int remaining = length - (vSize - i);
-    Bytes firstValue = this.values[j].slice(i);
-    int firstOffset = j;
+    Bytes[] combined = new Bytes[last - first + 1];
+    combined[0] = values[first].slice(i - offsets[first]);
+    System.arraycopy(values, first + 1, combined, 1, last - first - 1);
+    combined[combined.length - 1] = values[last].slice(0, end - offsets[last]);
+    return new ConcatenatedBytes(combined, length);
+  }
 
-    while (remaining > 0) {
-      if (++j >= this.values.length) {
-        throw new IllegalStateException("element sizes do not match total size");
+  // Returns the index of the value containing the byte at index i, which must be a valid index.
+  private int valueIndex(int i) {
+    // reads and writes of an int are atomic, so a concurrent update of lastValue is harmless
+    int j = lastValue;
+    if (i >= offsets[j]) {
+      if (i < offsets[j + 1]) {
+        return j;
       }
-      vSize = this.values[j].size();
-      if (length < vSize) {
-        break;
+      if (j + 2 < offsets.length && i < offsets[j + 2]) {
+        lastValue = j + 1;
+        return j + 1;
       }
-      remaining -= vSize;
     }
+    // all values are non-empty, so offsets are strictly increasing
+    j = Arrays.binarySearch(offsets, 0, values.length, i);
+    if (j < 0) {
+      j = -j - 2;
+    }
+    lastValue = j;
+    return j;
+  }
 
-    Bytes[] combined = new Bytes[j - firstOffset + 1];
-    combined[0] = firstValue;
-    if (remaining > 0) {
-      if (combined.length > 2) {
-        System.arraycopy(this.values, firstOffset + 1, combined, 1, combined.length - 2);
-      }
-      combined[combined.length - 1] = this.values[j].slice(0, remaining);
-    } else if (combined.length > 1) {
-      System.arraycopy(this.values, firstOffset + 1, combined, 1, combined.length - 1);
+  @Override
+  public void update(MessageDigest digest) {
+    for (Bytes value : values) {
+      value.update(digest);
+    }
+  }
+
+  @Override
+  public void appendTo(Buffer buffer) {
+    for (Bytes value : values) {
+      value.appendTo(buffer);
     }
-    return new ConcatenatedBytes(combined, length);
   }
 
   @Override
@@ -199,15 +227,8 @@ final class ConcatenatedBytes extends AbstractBytes {
   }
 
   private void copyToUnchecked(MutableBytes destination, int destinationOffset) {
-    int offset = 0;
-    for (Bytes value : values) {
-      int vSize = value.size();
-      if ((offset + vSize) > size) {
-        throw new IllegalStateException("element sizes do not match total size");
-      }
-      value.copyTo(destination, destinationOffset);
-      offset += vSize;
-      destinationOffset += vSize;
+    for (int i = 0; i < values.length; ++i) {
+      values[i].copyTo(destination, destinationOffset + offsets[i]);
     }
   }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.bytes;
+
+final class HeapReleasableBytes extends MutableArrayWrappingBytes implements ReleasableBytes {
+
+  private final ReferenceCount refCount = new ReferenceCount();
+
+  HeapReleasableBytes(byte[] bytes) {
+    super(bytes);
+  }
+
+  @Override
+  public int refCount() {
+    return refCount.get();
+  }
+
+  @Override
+  public ReleasableBytes retain() {
+    refCount.retain();
+    return this;
+  }
+
+  @Override
+  public boolean release() {
+    return refCount.release();
+  }
+}
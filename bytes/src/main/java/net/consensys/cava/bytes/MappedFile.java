@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.bytes;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only view of a file, mapped into memory.
+ *
+ * <p>
+ * The file is mapped in segments, so files larger than 2GB are supported. Values returned by {@link #slice(long, int)}
+ * are views over the mapped memory, and do not copy the content of the file. A slice that spans two segments is a
+ * concatenation of views over both.
+ *
+ * <p>
+ * The content of the file is read from the operating system's page cache as it is accessed. Changes made to the file
+ * by other processes may or may not be visible, and the behavior is unspecified if the file is truncated.
+ */
+public final class MappedFile {
+
+  /**
+   * The default size of the mapped segments.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+  private final ByteBuffer[] segments;
+  private final int segmentSize;
+  private final long size;
+
+  /**
+   * Map a file into memory.
+   *
+   * @param path The path of the file.
+   * @return The mapped file.
+   * @throws IOException If an I/O error occurs while mapping the file.
+   */
+  public static MappedFile map(Path path) throws IOException {
+    return map(path, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Map a file into memory, using segments of the given size.
+   *
+   * @param path The path of the file.
+   * @param segmentSize The size of the mapped segments.
+   * @return The mapped file.
+   * @throws IOException If an I/O error occurs while mapping the file.
+   */
+  public static MappedFile map(Path path, int segmentSize) throws IOException {
+    checkArgument(segmentSize > 0, "segmentSize must be positive");
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long segmentCount = (size + segmentSize - 1) / segmentSize;
+      checkArgument(segmentCount <= Integer.MAX_VALUE, "File is too large for the segment size");
+      ByteBuffer[] segments = new ByteBuffer[(int) segmentCount];
+      for (int i = 0; i < segments.length; ++i) {
+        long position = (long) i * segmentSize;
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentSize, size - position));
+      }
+      // the mappings remain valid once the channel is closed
+      return new MappedFile(segments, segmentSize, size);
+    }
+  }
+
+  private MappedFile(ByteBuffer[] segments, int segmentSize, long size) {
+    this.segments = segments;
+    this.segmentSize = segmentSize;
+    this.size = size;
+  }
+
+  /**
+   * @return The size of the file, in bytes.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Retrieve a byte of the file.
+   *
+   * @param offset The offset of the byte in the file.
+   * @return The byte at {@code offset}.
+   * @throws IndexOutOfBoundsException If {@code offset} is negative or not less than {@link #size()}.
+   */
+  public byte get(long offset) {
+    checkOffset(offset);
+    return segments[(int) (offset / segmentSize)].get((int) (offset % segmentSize));
+  }
+
+  /**
+   * Create a view over a range of the file.
+   *
+   * @param offset The offset in the file of the first byte of the view.
+   * @param length The length of the view.
+   * @return A view over {@code length} bytes of the file, starting at {@code offset}.
+   * @throws IndexOutOfBoundsException If {@code offset} is negative or not less than {@link #size()}.
+   * @throws IllegalArgumentException If {@code length} is negative or the range extends past the end of the file.
+   */
+  public Bytes slice(long offset, int length) {
+    checkArgument(length >= 0, "Invalid negative length");
+    if (length == 0) {
+      return Bytes.EMPTY;
+    }
+    checkOffset(offset);
+    checkArgument(
+        offset + length <= size,
+        "Provided length %s is too big: the file has size %s and has only %s bytes from %s",
+        length,
+        size,
+        size - offset,
+        offset);
+
+    int first = (int) (offset / segmentSize);
+    int last = (int) ((offset + length - 1) / segmentSize);
+    int segmentOffset = (int) (offset % segmentSize);
+    if (first == last) {
+      return new ByteBufferWrappingBytes(segments[first], segmentOffset, length);
+    }
+
+    Bytes[] parts = new Bytes[last - first + 1];
+    int remaining = length;
+    for (int i = first; i <= last; ++i) {
+      int partLength = Math.min(remaining, segments[i].capacity() - segmentOffset);
+      parts[i - first] = new ByteBufferWrappingBytes(segments[i], segmentOffset, partLength);
+      remaining -= partLength;
+      segmentOffset = 0;
+    }
+    return Bytes.wrap(parts);
+  }
+
+  /**
+   * Create a view over the whole file.
+   *
+   * @return A view over the whole file.
+   * @throws IllegalStateException If the file is larger than {@link Integer#MAX_VALUE} bytes.
+   */
+  public Bytes bytes() {
+    checkState(size <= Integer.MAX_VALUE, "File is too large to be viewed as a single value");
+    if (size == 0) {
+      return Bytes.EMPTY;
+    }
+    return slice(0, (int) size);
+  }
+
+  private void checkOffset(long offset) {
+    if (offset < 0 || offset >= size) {
+      throw new IndexOutOfBoundsException("Offset " + offset + " is out of bounds for a file of size " + size);
+    }
+  }
+}
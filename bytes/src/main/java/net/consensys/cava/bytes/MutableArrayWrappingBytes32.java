@@ -24,7 +24,7 @@ final class MutableArrayWrappingBytes32 extends MutableArrayWrappingBytes implem
 
   @Override
   public Bytes32 copy() {
-    return new ArrayWrappingBytes32(toArray());
+    return ArrayWrappingBytes32.owning(toArray());
   }
 
   @Override
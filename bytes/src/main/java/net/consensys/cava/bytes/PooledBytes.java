@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.bytes;
+
+import java.nio.ByteBuffer;
+
+final class PooledBytes extends MutableByteBufferWrappingBytes implements ReleasableBytes {
+
+  private final PooledBytesAllocator allocator;
+  private final int sizeClass;
+  // when set, accesses after release fail rather than reading or writing memory that may have been reused
+  private final boolean checkAccess;
+  private final ReferenceCount refCount = new ReferenceCount();
+
+  PooledBytes(PooledBytesAllocator allocator, int sizeClass, ByteBuffer byteBuffer, int size, boolean checkAccess) {
+    super(byteBuffer, 0, size);
+    this.allocator = allocator;
+    this.sizeClass = sizeClass;
+    this.checkAccess = checkAccess;
+  }
+
+  ByteBuffer buffer() {
+    return byteBuffer;
+  }
+
+  int sizeClass() {
+    return sizeClass;
+  }
+
+  @Override
+  public int refCount() {
+    return refCount.get();
+  }
+
+  @Override
+  public ReleasableBytes retain() {
+    refCount.retain();
+    return this;
+  }
+
+  @Override
+  public boolean release() {
+    if (!refCount.release()) {
+      return false;
+    }
+    allocator.recycle(this);
+    return true;
+  }
+
+  @Override
+  public byte get(int i) {
+    checkNotReleased();
+    return super.get(i);
+  }
+
+  @Override
+  public int getInt(int i) {
+    checkNotReleased();
+    return super.getInt(i);
+  }
+
+  @Override
+  public long getLong(int i) {
+    checkNotReleased();
+    return super.getLong(i);
+  }
+
+  @Override
+  public void set(int i, byte b) {
+    checkNotReleased();
+    super.set(i, b);
+  }
+
+  @Override
+  public void setInt(int i, int value) {
+    checkNotReleased();
+    super.setInt(i, value);
+  }
+
+  @Override
+  public void setLong(int i, long value) {
+    checkNotReleased();
+    super.setLong(i, value);
+  }
+
+  @Override
+  public Bytes slice(int i, int length) {
+    checkNotReleased();
+    return super.slice(i, length);
+  }
+
+  @Override
+  public MutableBytes mutableSlice(int i, int length) {
+    checkNotReleased();
+    return super.mutableSlice(i, length);
+  }
+
+  @Override
+  public Bytes copy() {
+    checkNotReleased();
+    return super.copy();
+  }
+
+  @Override
+  public MutableBytes mutableCopy() {
+    checkNotReleased();
+    return super.mutableCopy();
+  }
+
+  @Override
+  public byte[] toArray() {
+    checkNotReleased();
+    return super.toArray();
+  }
+
+  @Override
+  public byte[] toArrayUnsafe() {
+    checkNotReleased();
+    return super.toArrayUnsafe();
+  }
+
+  private void checkNotReleased() {
+    if (checkAccess && refCount.get() == 0) {
+      throw new IllegalStateException("Value has already been released");
+    }
+  }
+}
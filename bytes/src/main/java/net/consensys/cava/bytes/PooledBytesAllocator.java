@@ -0,0 +1,251 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.bytes;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link BytesAllocator} that allocates values off-heap, and pools their memory for reuse once they are released.
+ *
+ * <p>
+ * Values are grouped in power-of-two size classes, from 32 bytes up to a maximum pooled size. The memory for each size
+ * class is allocated in slabs of direct memory, which are divided between many values. Values larger than the maximum
+ * pooled size are allocated in their own direct buffer, which is not reused.
+ *
+ * <p>
+ * When leak tracking is enabled, the allocator records where each unreleased value was allocated, so that
+ * {@link #checkForLeaks()} can report them, and values throw {@link IllegalStateException} when they are read or
+ * written after they have been released. This is intended for use in tests, as it is costly.
+ */
+public final class PooledBytesAllocator implements BytesAllocator {
+
+  /**
+   * The default maximum size of pooled values.
+   */
+  public static final int DEFAULT_MAX_POOLED_SIZE = 1024;
+
+  /**
+   * The default maximum number of unused values kept in each size class.
+   */
+  public static final int DEFAULT_MAX_POOLED_PER_SIZE_CLASS = 4096;
+
+  private static final int MIN_POOLED_SIZE = 32;
+  private static final int SLAB_SIZE = 64 * 1024;
+
+  private final int maxPooledPerSizeClass;
+  private final SizeClass[] sizeClasses;
+  private final Map<ReleasableBytes, Throwable> allocationSites;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder unpooled = new LongAdder();
+  private final LongAdder allocated = new LongAdder();
+  private final LongAdder released = new LongAdder();
+
+  private static final class SizeClass {
+    final int size;
+    final int buffersPerSlab;
+    // buffers that have been released, and can be reused
+    final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    final AtomicInteger freeCount = new AtomicInteger();
+    // the slab that new buffers are carved from, and the index of the next buffer to carve from it
+    private ByteBuffer slab;
+    private int slabIndex;
+
+    SizeClass(int size, int buffersPerSlab) {
+      this.size = size;
+      this.buffersPerSlab = buffersPerSlab;
+    }
+
+    synchronized ByteBuffer carve() {
+      if (slab == null || slabIndex == buffersPerSlab) {
+        slab = ByteBuffer.allocateDirect(buffersPerSlab * size);
+        slabIndex = 0;
+      }
+      slab.limit((slabIndex + 1) * size);
+      slab.position(slabIndex * size);
+      slabIndex++;
+      return slab.slice();
+    }
+  }
+
+  /**
+   * Create an allocator with the default limits and without leak tracking.
+   */
+  public PooledBytesAllocator() {
+    this(DEFAULT_MAX_POOLED_SIZE, DEFAULT_MAX_POOLED_PER_SIZE_CLASS, false);
+  }
+
+  /**
+   * Create an allocator.
+   *
+   * @param maxPooledSize The maximum size of pooled values, which must be a power of two of at least 32.
+   * @param maxPooledPerSizeClass The maximum number of unused values kept in each size class.
+   * @param trackLeaks {@code true} to record where unreleased values were allocated.
+   */
+  public PooledBytesAllocator(int maxPooledSize, int maxPooledPerSizeClass, boolean trackLeaks) {
+    checkArgument(
+        maxPooledSize >= MIN_POOLED_SIZE && Integer.bitCount(maxPooledSize) == 1,
+        "maxPooledSize must be a power of two of at least %s",
+        MIN_POOLED_SIZE);
+    checkArgument(maxPooledPerSizeClass >= 0, "maxPooledPerSizeClass must be non-negative");
+    this.maxPooledPerSizeClass = maxPooledPerSizeClass;
+    this.sizeClasses = new SizeClass[sizeClassIndex(maxPooledSize) + 1];
+    for (int i = 0; i < sizeClasses.length; ++i) {
+      int size = MIN_POOLED_SIZE << i;
+      sizeClasses[i] = new SizeClass(size, Math.max(1, Math.min(SLAB_SIZE / size, maxPooledPerSizeClass + 1)));
+    }
+    this.allocationSites = trackLeaks ? Collections.synchronizedMap(new IdentityHashMap<>()) : null;
+  }
+
+  @Override
+  public ReleasableBytes allocate(int size) {
+    checkArgument(size >= 0, "Invalid negative size");
+    PooledBytes bytes;
+    int index = sizeClassIndex(size);
+    if (index >= sizeClasses.length) {
+      unpooled.increment();
+      bytes = new PooledBytes(this, -1, ByteBuffer.allocateDirect(size), size, allocationSites != null);
+    } else {
+      SizeClass sizeClass = sizeClasses[index];
+      ByteBuffer buffer = sizeClass.free.poll();
+      if (buffer != null) {
+        sizeClass.freeCount.decrementAndGet();
+        hits.increment();
+        clear(buffer, size);
+      } else {
+        // memory that has not been used before is not a reuse, even if it was allocated with an earlier slab
+        misses.increment();
+        buffer = sizeClass.carve();
+      }
+      bytes = new PooledBytes(this, index, buffer, size, allocationSites != null);
+    }
+    allocated.increment();
+    if (allocationSites != null) {
+      allocationSites.put(bytes, new Throwable("Allocation site of a value that was not released"));
+    }
+    return bytes;
+  }
+
+  void recycle(PooledBytes bytes) {
+    released.increment();
+    if (allocationSites != null) {
+      allocationSites.remove(bytes);
+    }
+    int index = bytes.sizeClass();
+    if (index < 0) {
+      return;
+    }
+    SizeClass sizeClass = sizeClasses[index];
+    if (sizeClass.freeCount.incrementAndGet() > maxPooledPerSizeClass) {
+      sizeClass.freeCount.decrementAndGet();
+      return;
+    }
+    sizeClass.free.offer(bytes.buffer());
+  }
+
+  private static void clear(ByteBuffer buffer, int size) {
+    int i = 0;
+    for (; i <= size - 8; i += 8) {
+      buffer.putLong(i, 0L);
+    }
+    for (; i < size; ++i) {
+      buffer.put(i, (byte) 0);
+    }
+  }
+
+  private static int sizeClassIndex(int size) {
+    if (size <= MIN_POOLED_SIZE) {
+      return 0;
+    }
+    // the number of doublings of MIN_POOLED_SIZE needed to fit size
+    return (32 - Integer.numberOfLeadingZeros(size - 1)) - 5;
+  }
+
+  /**
+   * @return The number of allocations that reused the memory of a released value.
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return The number of allocations of a pooled size that used memory not previously used by another value.
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return The number of allocations that were too large to be pooled.
+   */
+  public long unpooledCount() {
+    return unpooled.sum();
+  }
+
+  /**
+   * @return The ratio of allocations of a pooled size that reused pooled memory, or 1.0 if there were none.
+   */
+  public double hitRate() {
+    long hitCount = hits.sum();
+    long total = hitCount + misses.sum();
+    return total == 0 ? 1.0 : (double) hitCount / total;
+  }
+
+  /**
+   * @return The number of values that have been allocated but not yet released.
+   */
+  public long outstandingCount() {
+    return allocated.sum() - released.sum();
+  }
+
+  /**
+   * @return The number of unused values currently held in the pool.
+   */
+  public int pooledCount() {
+    int count = 0;
+    for (SizeClass sizeClass : sizeClasses) {
+      count += sizeClass.freeCount.get();
+    }
+    return count;
+  }
+
+  /**
+   * Check that all values allocated by this allocator have been released.
+   *
+   * @throws IllegalStateException If some values have not been released, with the allocation site of one of them as
+   *         its cause when leak tracking is enabled.
+   */
+  public void checkForLeaks() {
+    long outstanding = outstandingCount();
+    if (outstanding == 0) {
+      return;
+    }
+    IllegalStateException e = new IllegalStateException(outstanding + " values were allocated but not released");
+    if (allocationSites != null) {
+      synchronized (allocationSites) {
+        allocationSites.values().stream().findFirst().ifPresent(e::initCause);
+      }
+    }
+    throw e;
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.bytes;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class ReferenceCount {
+
+  private final AtomicInteger count = new AtomicInteger(1);
+
+  int get() {
+    return count.get();
+  }
+
+  void retain() {
+    while (true) {
+      int current = count.get();
+      if (current == 0) {
+        throw new IllegalStateException("Value has already been released");
+      }
+      if (count.compareAndSet(current, current + 1)) {
+        return;
+      }
+    }
+  }
+
+  boolean release() {
+    while (true) {
+      int current = count.get();
+      if (current == 0) {
+        throw new IllegalStateException("Value has already been released");
+      }
+      if (count.compareAndSet(current, current - 1)) {
+        return current == 1;
+      }
+    }
+  }
+}
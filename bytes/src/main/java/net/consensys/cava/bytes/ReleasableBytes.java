@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.bytes;
+
+/**
+ * A {@link MutableBytes} value allocated by a {@link BytesAllocator}, which must be released once it is no longer
+ * needed.
+ *
+ * <p>
+ * Values are reference counted, with a count of 1 when they are allocated. Each call to {@link #retain()} must be
+ * matched by a call to {@link #release()}. When the count reaches zero, the memory is returned to the allocator, and
+ * neither the value nor any slice of it may be used afterwards. Values returned by {@link #copy()} are not affected.
+ *
+ * <p>
+ * The result of using a value or its slices after release is undefined: the memory may already belong to another
+ * value, whose content would then be read or overwritten. Allocators may detect such uses, but are not required to.
+ */
+public interface ReleasableBytes extends MutableBytes, AutoCloseable {
+
+  /**
+   * @return The current reference count of this value.
+   */
+  int refCount();
+
+  /**
+   * Increment the reference count of this value.
+   *
+   * @return This value.
+   * @throws IllegalStateException If this value has already been released.
+   */
+  ReleasableBytes retain();
+
+  /**
+   * Decrement the reference count of this value, returning its memory to the allocator when the count reaches zero.
+   *
+   * <p>
+   * Once this method returns {@code true}, the value and its slices must no longer be used.
+   *
+   * @return {@code true} if the count reached zero and the value was released.
+   * @throws IllegalStateException If this value has already been released.
+   */
+  boolean release();
+
+  /**
+   * Decrement the reference count of this value, as for {@link #release()}.
+   */
+  @Override
+  default void close() {
+    release();
+  }
+}
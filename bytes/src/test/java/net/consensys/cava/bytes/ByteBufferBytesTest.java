@@ -12,7 +12,12 @@
  */
 package net.consensys.cava.bytes;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Test;
 
 class ByteBufferBytesTest extends CommonBytesTests {
 
@@ -35,4 +40,12 @@ class ByteBufferBytesTest extends CommonBytesTests {
   Bytes of(int... bytes) {
     return Bytes.wrapByteBuffer(ByteBuffer.wrap(Bytes.of(bytes).toArray()));
   }
+
+  @Test
+  void readsBigEndianFromLittleEndianBuffer() {
+    byte[] bytes = Bytes.fromHexString("0x0102030405060708").toArray();
+    Bytes value = Bytes.wrapByteBuffer(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN));
+    assertEquals(0x0102030405060708L, value.getLong(0));
+    assertEquals(Bytes.wrap(bytes), value);
+  }
 }
@@ -13,6 +13,7 @@
 package net.consensys.cava.bytes;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
@@ -48,4 +49,24 @@ class Bytes32Test {
     Throwable exception = assertThrows(IllegalArgumentException.class, () -> Bytes32.leftPad(MutableBytes.create(33)));
     assertEquals("Expected at most 32 bytes but got 33", exception.getMessage());
   }
+
+  @Test
+  void hashCodeOfWrappedArrayReflectsChanges() {
+    byte[] bytes = new byte[32];
+    Bytes32 value = Bytes32.wrap(bytes);
+    int hashCode = value.hashCode();
+    bytes[31] = 1;
+    assertNotEquals(hashCode, value.hashCode());
+    assertEquals(Bytes32.wrap(bytes.clone()).hashCode(), value.hashCode());
+  }
+
+  @Test
+  void copyOfMutableValueHasSameHashCode() {
+    MutableBytes32 mutable = MutableBytes32.create();
+    mutable.set(5, (byte) 7);
+    Bytes32 copy = mutable.copy();
+    assertEquals(mutable.hashCode(), copy.hashCode());
+    assertEquals(mutable.hashCode(), copy.hashCode());
+    assertEquals(mutable, copy);
+  }
 }
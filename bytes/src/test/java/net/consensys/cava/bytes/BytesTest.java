@@ -356,6 +356,26 @@ class BytesTest extends CommonBytesTests {
     assertEquals("Illegal character 'o' found at index 1 in hex binary representation 'fooo'", exception.getMessage());
   }
 
+  @Test
+  void fromHexStringRange() {
+    String str = "{\"hash\":\"0x01FF2A\"}";
+    assertEquals(Bytes.of(1, 0xff, 0x2a), Bytes.fromHexString(str, 9, 17));
+    assertEquals(Bytes.of(1, 0xff, 0x2a), Bytes.fromHexString(new StringBuilder(str), 11, 17));
+    assertEquals(Bytes.of(), Bytes.fromHexString(str, 9, 11));
+    assertEquals(Bytes.of(0x0f, 0xf2), Bytes.fromHexStringLenient(str, 13, 16));
+    assertThrows(IndexOutOfBoundsException.class, () -> Bytes.fromHexString(str, 9, 30));
+  }
+
+  @Test
+  void fromHexStringRangeInvalidInput() {
+    Throwable exception = assertThrows(IllegalArgumentException.class, () -> Bytes.fromHexString("xx0x01fooo", 2, 10));
+    assertEquals(
+        "Illegal character 'o' found at index 3 in hex binary representation '0x01fooo'",
+        exception.getMessage());
+    exception = assertThrows(IllegalArgumentException.class, () -> Bytes.fromHexString("xx0x100", 2, 7));
+    assertEquals("Invalid odd-length hex binary representation '0x100'", exception.getMessage());
+  }
+
   @Test
   void fromHexStringLeftPaddingNotLenient() {
     Throwable exception = assertThrows(IllegalArgumentException.class, () -> Bytes.fromHexString("0x100", 4));
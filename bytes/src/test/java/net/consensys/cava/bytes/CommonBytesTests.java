@@ -415,6 +415,42 @@ abstract class CommonBytesTests {
     assertEquals(Bytes.of(3), v.commonPrefix(o));
   }
 
+  @Test
+  void findsCommonPrefixBeyondEightBytes() {
+    Bytes v = h("0x0102030405060708090A0B0C0D0E0F10");
+    assertEquals(16, v.commonPrefixLength(Bytes.fromHexString("0x0102030405060708090A0B0C0D0E0F1011")));
+    assertEquals(9, v.commonPrefixLength(h("0x0102030405060708097A0B0C0D0E0F10")));
+    assertEquals(3, v.commonPrefixLength(Bytes.fromHexString("0x010203FF05060708")));
+    assertEquals(0, v.commonPrefixLength(Bytes.EMPTY));
+  }
+
+  @Test
+  void findsMismatch() {
+    Bytes v = h("0x0102030405060708090A");
+    assertEquals(-1, v.mismatch(Bytes.fromHexString("0x0102030405060708090A")));
+    assertEquals(9, v.mismatch(h("0x010203040506070809FF")));
+    assertEquals(10, v.mismatch(Bytes.fromHexString("0x0102030405060708090A0B")));
+    assertEquals(2, v.mismatch(h("0x0102")));
+    assertEquals(0, v.mismatch(h("0xFF")));
+  }
+
+  @Test
+  void comparesUnsigned() {
+    assertEquals(0, h("0x0102030405060708090A").compareTo(Bytes.fromHexString("0x0102030405060708090A")));
+    assertTrue(h("0x01").compareTo(h("0xFF")) < 0);
+    assertTrue(h("0xFF").compareTo(h("0x01")) > 0);
+    assertTrue(h("0x0102030405060708097F").compareTo(h("0x01020304050607080980")) < 0);
+    assertTrue(h("0x0102030405060708FF").compareTo(Bytes.fromHexString("0x010203040506070800")) > 0);
+  }
+
+  @Test
+  void comparesPrefixesBeforeLongerValues() {
+    assertTrue(h("0x").compareTo(h("0x00")) < 0);
+    assertTrue(h("0x0102").compareTo(h("0x010200")) < 0);
+    assertTrue(h("0x010200").compareTo(Bytes.fromHexString("0x0102")) > 0);
+    assertTrue(h("0x0103").compareTo(h("0x010200")) > 0);
+  }
+
   @Test
   void testTrimLeadingZeroes() {
     assertEquals(h("0x"), h("0x").trimLeadingZeros());
@@ -519,6 +555,29 @@ abstract class CommonBytesTests {
     assertEquals("0x0AFF03", of(0x0a, 0xff, 0x03).toString());
   }
 
+  @Test
+  void testAppendHexTo() throws Exception {
+    Bytes value = of(0x0a, 0xff, 0x03);
+    assertEquals("prefix0x0AFF03", value.appendHexTo(new StringBuilder("prefix")).toString());
+    assertEquals("0x", Bytes.EMPTY.appendHexTo(new StringBuilder()).toString());
+
+    Appendable appendable = new StringBuilder();
+    assertEquals("0x0AFF03", value.appendHexTo(appendable).toString());
+
+    Buffer buffer = Buffer.buffer("prefix");
+    value.appendHexToBuffer(buffer);
+    assertEquals("prefix0x0AFF03", buffer.toString());
+  }
+
+  @Test
+  void testWriteHexTo() {
+    Bytes value = of(0x0a, 0xff, 0x03);
+    char[] chars = new char[10];
+    assertEquals(9, value.writeHexTo(chars, 1));
+    assertEquals("0x0AFF03", new String(chars, 1, 8));
+    assertThrows(IndexOutOfBoundsException.class, () -> value.writeHexTo(chars, 3));
+  }
+
   @Test
   void testHasLeadingZeroByte() {
     assertFalse(Bytes.fromHexString("0x").hasLeadingZeroByte());
@@ -572,4 +631,25 @@ abstract class CommonBytesTests {
     Bytes b2 = w(key).slice(16, 16);
     assertEquals(b.hashCode(), b2.hashCode());
   }
+
+  @Test
+  void testEqualsAndHashCodeConsistentWithArrays() {
+    SecureRandom random = new SecureRandom();
+    for (int size = 0; size <= 41; size++) {
+      byte[] key = new byte[size];
+      random.nextBytes(key);
+      Bytes b = w(key);
+      Bytes array = Bytes.wrap(key.clone());
+      assertEquals(array, b);
+      assertEquals(b, array);
+      assertEquals(Arrays.hashCode(key), b.hashCode());
+      assertEquals(array.hashCode(), b.hashCode());
+      if (size > 0) {
+        byte[] other = key.clone();
+        other[size - 1] ^= 1;
+        assertNotEquals(Bytes.wrap(other), b);
+        assertNotEquals(b, Bytes.wrap(other));
+      }
+    }
+  }
 }
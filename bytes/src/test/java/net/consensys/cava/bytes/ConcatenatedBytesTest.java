@@ -16,8 +16,10 @@ import static net.consensys.cava.bytes.Bytes.fromHexString;
 import static net.consensys.cava.bytes.Bytes.wrap;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.util.Arrays;
+import java.util.Random;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -96,4 +98,47 @@ class ConcatenatedBytesTest {
     assertEquals(24, bytes.size());
     assertEquals("0x0123456789ABCDEF0123456789ABCDEF0123456789ABCDEF", bytes.toHexString());
   }
+
+  @Test
+  void shouldReadAndSliceManyValuesOfDifferentSizes() {
+    Random random = new Random(1);
+    Bytes[] values = new Bytes[50];
+    byte[] expected = new byte[0];
+    for (int i = 0; i < values.length; ++i) {
+      byte[] value = new byte[random.nextInt(10)];
+      random.nextBytes(value);
+      values[i] = Bytes.wrap(value);
+      expected = Bytes.concatenate(Bytes.wrap(expected), values[i]).toArray();
+    }
+    Bytes bytes = wrap(values);
+    assertEquals(expected.length, bytes.size());
+    for (int i = expected.length - 1; i >= 0; i -= 3) {
+      assertEquals(expected[i], bytes.get(i));
+    }
+    for (int i = 0; i < expected.length; ++i) {
+      assertEquals(expected[i], bytes.get(i));
+    }
+    for (int i = 0; i < expected.length; i += 7) {
+      for (int length = 0; length <= expected.length - i; length += 11) {
+        assertEquals(Bytes.wrap(expected, i, length), bytes.slice(i, length));
+        assertEquals(length, bytes.slice(i, length).size());
+      }
+    }
+  }
+
+  @Test
+  void shouldSliceAcrossValuesOfDifferentSizes() {
+    Bytes bytes = wrap(fromHexString("0x0102"), fromHexString("0x030405060708"), fromHexString("0x090A0B0C0D0E"));
+    assertEquals("0x0203040506070809", bytes.slice(1, 8).toHexString());
+    assertEquals("0x02030405060708090A0B0C0D0E", bytes.slice(1).toHexString());
+    assertEquals("0x0A0B", bytes.slice(9, 2).toHexString());
+  }
+
+  @Test
+  void shouldNotWrapSinglePart() {
+    Bytes value = fromHexString("0x01020304");
+    assertSame(value, wrap(value));
+    assertSame(value, wrap(value, Bytes.EMPTY));
+    assertSame(value, wrap(Bytes.EMPTY, value, Bytes.EMPTY));
+  }
 }
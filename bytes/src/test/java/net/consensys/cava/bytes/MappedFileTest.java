@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.bytes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MappedFileTest {
+
+  private Path file;
+  private byte[] content;
+
+  @BeforeEach
+  void writeFile() throws IOException {
+    content = new byte[1000];
+    new Random(1).nextBytes(content);
+    file = Files.createTempFile("mapped", ".bin");
+    Files.write(file, content);
+  }
+
+  @AfterEach
+  void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  void shouldReadBytesAcrossSegments() throws IOException {
+    MappedFile mapped = MappedFile.map(file, 64);
+    assertEquals(1000, mapped.size());
+    for (int i = 0; i < content.length; ++i) {
+      assertEquals(content[i], mapped.get(i));
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> mapped.get(1000));
+    assertThrows(IndexOutOfBoundsException.class, () -> mapped.get(-1));
+  }
+
+  @Test
+  void shouldSliceWithinASegment() throws IOException {
+    MappedFile mapped = MappedFile.map(file, 64);
+    Bytes slice = mapped.slice(70, 32);
+    assertArrayEquals(Arrays.copyOfRange(content, 70, 102), slice.toArray());
+    assertEquals(Bytes.wrap(content, 70, 32), slice);
+  }
+
+  @Test
+  void shouldSliceAcrossSegments() throws IOException {
+    MappedFile mapped = MappedFile.map(file, 64);
+    Bytes slice = mapped.slice(50, 500);
+    assertArrayEquals(Arrays.copyOfRange(content, 50, 550), slice.toArray());
+    assertEquals(Bytes.wrap(content, 50, 500), slice);
+    assertEquals(Bytes.wrap(content, 100, 100), slice.slice(50, 100));
+  }
+
+  @Test
+  void shouldViewWholeFile() throws IOException {
+    assertEquals(Bytes.wrap(content), MappedFile.map(file).bytes());
+    assertEquals(Bytes.wrap(content), MappedFile.map(file, 64).bytes());
+    assertEquals(Bytes.wrap(content), MappedFile.map(file, 1000).bytes());
+  }
+
+  @Test
+  void shouldRejectRangesPastTheEnd() throws IOException {
+    MappedFile mapped = MappedFile.map(file, 64);
+    assertEquals(Bytes.EMPTY, mapped.slice(1000, 0));
+    assertThrows(IllegalArgumentException.class, () -> mapped.slice(990, 20));
+    assertThrows(IllegalArgumentException.class, () -> mapped.slice(0, -1));
+  }
+
+  @Test
+  void shouldMapEmptyFile() throws IOException {
+    Files.write(file, new byte[0]);
+    MappedFile mapped = MappedFile.map(file);
+    assertEquals(0, mapped.size());
+    assertEquals(Bytes.EMPTY, mapped.bytes());
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.bytes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PooledBytesAllocatorTest {
+
+  private PooledBytesAllocator allocator;
+
+  @BeforeEach
+  void setUp() {
+    allocator = new PooledBytesAllocator(1024, 16, true);
+  }
+
+  @AfterEach
+  void checkForLeaks() {
+    allocator.checkForLeaks();
+  }
+
+  @Test
+  void allocatesZeroFilledValues() {
+    try (ReleasableBytes bytes = allocator.allocate(100)) {
+      assertEquals(100, bytes.size());
+      assertEquals(MutableBytes.create(100), bytes);
+    }
+  }
+
+  @Test
+  void reusesReleasedMemory() {
+    ReleasableBytes first = allocator.allocate(32);
+    first.setLong(0, -1L);
+    assertEquals(1, allocator.missCount());
+    assertTrue(first.release());
+
+    long hits = allocator.hitCount();
+    for (int i = 0; i < 20; ++i) {
+      try (ReleasableBytes bytes = allocator.allocate(20)) {
+        assertEquals(0L, bytes.getLong(0));
+        bytes.setLong(0, -1L);
+      }
+    }
+    assertEquals(hits + 20, allocator.hitCount());
+    assertEquals(1, allocator.missCount());
+    assertTrue(allocator.hitRate() > 0.9);
+  }
+
+  @Test
+  void countsOnlyReusedMemoryAsHits() {
+    ReleasableBytes[] values = new ReleasableBytes[10];
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = allocator.allocate(32);
+    }
+    assertEquals(0, allocator.hitCount());
+    assertEquals(10, allocator.missCount());
+    assertEquals(0.0, allocator.hitRate());
+
+    for (ReleasableBytes value : values) {
+      value.release();
+    }
+    allocator.allocate(32).release();
+    assertEquals(1, allocator.hitCount());
+    assertEquals(10, allocator.missCount());
+  }
+
+  @Test
+  void keepsAtMostTheMaximumOfUnusedValues() {
+    ReleasableBytes[] values = new ReleasableBytes[40];
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = allocator.allocate(64);
+    }
+    for (ReleasableBytes value : values) {
+      value.release();
+    }
+    assertTrue(allocator.pooledCount() <= 16);
+  }
+
+  @Test
+  void releasesWhenReferenceCountReachesZero() {
+    ReleasableBytes bytes = allocator.allocate(48);
+    assertEquals(1, bytes.refCount());
+    bytes.retain();
+    assertEquals(2, bytes.refCount());
+    assertFalse(bytes.release());
+    assertEquals(1, allocator.outstandingCount());
+    assertTrue(bytes.release());
+    assertEquals(0, allocator.outstandingCount());
+    assertThrows(IllegalStateException.class, bytes::release);
+    assertThrows(IllegalStateException.class, bytes::retain);
+  }
+
+  @Test
+  void rejectsUseAfterReleaseWhenTrackingLeaks() {
+    ReleasableBytes bytes = allocator.allocate(32);
+    assertTrue(bytes.release());
+    assertThrows(IllegalStateException.class, () -> bytes.get(0));
+    assertThrows(IllegalStateException.class, () -> bytes.setLong(0, -1L));
+    assertThrows(IllegalStateException.class, bytes::copy);
+  }
+
+  @Test
+  void copiesAreIndependentOfTheReleasedValue() {
+    Bytes copy;
+    try (ReleasableBytes bytes = allocator.allocate(32)) {
+      bytes.set(0, (byte) 1);
+      copy = bytes.copy();
+    }
+    try (ReleasableBytes bytes = allocator.allocate(32)) {
+      bytes.set(0, (byte) 2);
+      assertEquals(1, copy.get(0));
+    }
+  }
+
+  @Test
+  void allocatesLargeValuesWithoutPooling() {
+    try (ReleasableBytes bytes = allocator.allocate(4096)) {
+      assertEquals(4096, bytes.size());
+    }
+    assertEquals(1, allocator.unpooledCount());
+    assertEquals(0, allocator.pooledCount());
+  }
+
+  @Test
+  void reportsLeakedValues() {
+    ReleasableBytes bytes = allocator.allocate(10);
+    IllegalStateException e = assertThrows(IllegalStateException.class, allocator::checkForLeaks);
+    assertEquals("1 values were allocated but not released", e.getMessage());
+    assertNotNull(e.getCause());
+    bytes.release();
+  }
+
+  @Test
+  void heapAllocatorCountsReferences() {
+    ReleasableBytes bytes = BytesAllocator.HEAP.allocate(8);
+    assertEquals(MutableBytes.create(8), bytes);
+    assertTrue(bytes.release());
+    assertThrows(IllegalStateException.class, bytes::release);
+  }
+}
@@ -12,19 +12,33 @@
  */
 package net.consensys.cava.crypto;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import net.consensys.cava.bytes.Bytes;
 import net.consensys.cava.bytes.Bytes32;
+import net.consensys.cava.bytes.MutableBytes32;
+import net.consensys.cava.crypto.sodium.GenericHash;
+import net.consensys.cava.crypto.sodium.SHA256Hash;
+import net.consensys.cava.crypto.sodium.Sodium;
 
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * Various utilities for providing hashes (digests) of arbitrary data.
  *
  * Requires the BouncyCastleProvider to be loaded and available. See
  * https://www.bouncycastle.org/wiki/display/JA1/Provider+Installation for detail.
+ *
+ * <p>
+ * If the sodium native library is available when this class is initialized, it is used for SHA2-256 and BLAKE2b
+ * digests instead of the BouncyCastleProvider.
  */
 public final class Hash {
   private Hash() {}
@@ -41,9 +55,62 @@ public final class Hash {
   private static String SHA3_256 = "SHA3-256";
   private static String SHA3_512 = "SHA3-512";
 
+  // BLAKE2b
+  private static String BLAKE2B_256 = "BLAKE2B-256";
+  private static String BLAKE2B_512 = "BLAKE2B-512";
+
+  private static final boolean USE_SODIUM = isSodiumAvailable();
+
+  private static boolean isSodiumAvailable() {
+    try {
+      return Sodium.isAvailable();
+    } catch (LinkageError e) {
+      // JNR-FFI is not on the classpath
+      return false;
+    }
+  }
+
+  // Looking up a digest through the JCA providers is costly, so each thread reuses the digests it has created
+  private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);
+  private static final ThreadLocal<byte[]> DIGEST_OUTPUT = ThreadLocal.withInitial(() -> new byte[32]);
+
+  // batches smaller than this are not worth splitting across the fork-join pool
+  private static final int MIN_PARALLEL_BATCH_SIZE = 16;
+
+  private static MessageDigest digest(String alg) throws NoSuchAlgorithmException {
+    Map<String, MessageDigest> digests = DIGESTS.get();
+    MessageDigest digest = digests.get(alg);
+    if (digest == null) {
+      digest = MessageDigest.getInstance(alg);
+      digests.put(alg, digest);
+    } else {
+      // in case a previous use was interrupted by an exception
+      digest.reset();
+    }
+    return digest;
+  }
+
+  private static <T extends MutableBytes32> T digestInto(Bytes input, String alg, T out) {
+    requireNonNull(input);
+    requireNonNull(out);
+    byte[] output = DIGEST_OUTPUT.get();
+    try {
+      MessageDigest digest = digest(alg);
+      input.update(digest);
+      digest.digest(output, 0, 32);
+    } catch (NoSuchAlgorithmException | DigestException e) {
+      throw new IllegalStateException("Algorithm should be available but was not", e);
+    }
+    Bytes.wrap(output).copyTo(out);
+    return out;
+  }
+
   /**
    * Helper method to generate a digest using the provided algorithm.
    *
+   * <p>
+   * Digest instances are reused by each thread, so that the algorithm is only looked up once per thread.
+   *
    * @param input The input bytes to produce the digest for.
    * @param alg The name of the digest algorithm to use.
    * @return A digest.
@@ -53,7 +120,7 @@ public final class Hash {
   public static byte[] digestUsingAlgorithm(byte[] input, String alg) throws NoSuchAlgorithmException {
     requireNonNull(input);
     requireNonNull(alg);
-    MessageDigest digest = MessageDigest.getInstance(alg);
+    MessageDigest digest = digest(alg);
     digest.update(input);
     return digest.digest();
   }
@@ -61,6 +128,9 @@ public final class Hash {
   /**
    * Helper method to generate a digest using the provided algorithm.
    *
+   * <p>
+   * Digest instances are reused by each thread, so that the algorithm is only looked up once per thread.
+   *
    * @param input The input bytes to produce the digest for.
    * @param alg The name of the digest algorithm to use.
    * @return A digest.
@@ -70,7 +140,7 @@ public final class Hash {
   public static Bytes digestUsingAlgorithm(Bytes input, String alg) throws NoSuchAlgorithmException {
     requireNonNull(input);
     requireNonNull(alg);
-    MessageDigest digest = MessageDigest.getInstance(alg);
+    MessageDigest digest = digest(alg);
     input.update(digest);
     return Bytes.wrap(digest.digest());
   }
@@ -82,6 +152,9 @@ public final class Hash {
    * @return A digest.
    */
   public static byte[] sha2_256(byte[] input) {
+    if (USE_SODIUM) {
+      return SHA256Hash.hash(input);
+    }
     try {
       return digestUsingAlgorithm(input, SHA2_256);
     } catch (NoSuchAlgorithmException e) {
@@ -96,6 +169,9 @@ public final class Hash {
    * @return A digest.
    */
   public static Bytes32 sha2_256(Bytes input) {
+    if (USE_SODIUM) {
+      return SHA256Hash.hash(input);
+    }
     try {
       return Bytes32.wrap(digestUsingAlgorithm(input, SHA2_256).toArrayUnsafe());
     } catch (NoSuchAlgorithmException e) {
@@ -103,6 +179,22 @@ public final class Hash {
     }
   }
 
+  /**
+   * Digest using SHA2-256, writing the digest to a provided value.
+   *
+   * @param input The input bytes to produce the digest for.
+   * @param out The value to write the digest to.
+   * @param <T> The type of the output value.
+   * @return {@code out}.
+   */
+  public static <T extends MutableBytes32> T sha2_256(Bytes input, T out) {
+    if (USE_SODIUM) {
+      SHA256Hash.hash(input).copyTo(out);
+      return out;
+    }
+    return digestInto(input, SHA2_256, out);
+  }
+
   /**
    * Digest using SHA2-512/256.
    *
@@ -159,6 +251,73 @@ public final class Hash {
     }
   }
 
+  /**
+   * Digest using keccak-256, writing the digest to a provided value.
+   *
+   * @param input The input bytes to produce the digest for.
+   * @param out The value to write the digest to.
+   * @param <T> The type of the output value.
+   * @return {@code out}.
+   */
+  public static <T extends MutableBytes32> T keccak256(Bytes input, T out) {
+    return digestInto(input, KECCAK_256, out);
+  }
+
+  /**
+   * Digest a batch of values using keccak-256.
+   *
+   * @param inputs The input values to produce digests for.
+   * @param output The array to store the digests in, at the same index as their input.
+   * @return {@code output}.
+   * @throws IllegalArgumentException If {@code output} is smaller than {@code inputs}.
+   */
+  public static Bytes32[] keccak256(Bytes[] inputs, Bytes32[] output) {
+    return keccak256(inputs, output, false);
+  }
+
+  /**
+   * Digest a batch of values using keccak-256.
+   *
+   * <p>
+   * When {@code parallel} is {@code true}, the values are digested concurrently using the common fork-join pool. This
+   * is only worthwhile for large batches, and small batches are always digested by the calling thread.
+   *
+   * @param inputs The input values to produce digests for.
+   * @param output The array to store the digests in, at the same index as their input.
+   * @param parallel {@code true} to digest the values concurrently.
+   * @return {@code output}.
+   * @throws IllegalArgumentException If {@code output} is smaller than {@code inputs}.
+   */
+  public static Bytes32[] keccak256(Bytes[] inputs, Bytes32[] output, boolean parallel) {
+    requireNonNull(inputs);
+    requireNonNull(output);
+    checkArgument(
+        output.length >= inputs.length,
+        "Output array has only %s elements for %s inputs",
+        output.length,
+        inputs.length);
+    IntStream indices = IntStream.range(0, inputs.length);
+    if (parallel && inputs.length >= MIN_PARALLEL_BATCH_SIZE) {
+      indices = indices.parallel();
+    }
+    indices.forEach(i -> output[i] = keccak256(inputs[i]));
+    return output;
+  }
+
+  /**
+   * Digest a batch of values using keccak-256.
+   *
+   * @param inputs The input values to produce digests for.
+   * @param output The array to store the digests in, at the same index as their input.
+   * @param parallel {@code true} to digest the values concurrently using the common fork-join pool.
+   * @return {@code output}.
+   * @throws IllegalArgumentException If {@code output} is smaller than {@code inputs}.
+   */
+  public static Bytes32[] keccak256(List<? extends Bytes> inputs, Bytes32[] output, boolean parallel) {
+    requireNonNull(inputs);
+    return keccak256(inputs.toArray(new Bytes[0]), output, parallel);
+  }
+
   /**
    * Digest using keccak-512.
    *
@@ -242,4 +401,56 @@ public final class Hash {
       throw new IllegalStateException("Algorithm should be available but was not", e);
     }
   }
+
+  /**
+   * Digest using BLAKE2b-256.
+   *
+   * @param input The input bytes to produce the digest for.
+   * @return A digest.
+   */
+  public static byte[] blake2b_256(byte[] input) {
+    return blake2b(input, 32, BLAKE2B_256);
+  }
+
+  /**
+   * Digest using BLAKE2b-256.
+   *
+   * @param input The input bytes to produce the digest for.
+   * @return A digest.
+   */
+  public static Bytes32 blake2b_256(Bytes input) {
+    return Bytes32.wrap(blake2b(input.toArrayUnsafe(), 32, BLAKE2B_256));
+  }
+
+  /**
+   * Digest using BLAKE2b-512.
+   *
+   * @param input The input bytes to produce the digest for.
+   * @return A digest.
+   */
+  public static byte[] blake2b_512(byte[] input) {
+    return blake2b(input, 64, BLAKE2B_512);
+  }
+
+  /**
+   * Digest using BLAKE2b-512.
+   *
+   * @param input The input bytes to produce the digest for.
+   * @return A digest.
+   */
+  public static Bytes blake2b_512(Bytes input) {
+    return Bytes.wrap(blake2b(input.toArrayUnsafe(), 64, BLAKE2B_512));
+  }
+
+  private static byte[] blake2b(byte[] input, int length, String alg) {
+    requireNonNull(input);
+    if (USE_SODIUM) {
+      return GenericHash.hash(length, input);
+    }
+    try {
+      return digestUsingAlgorithm(input, alg);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Algorithm should be available but was not", e);
+    }
+  }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.crypto.sodium;
+
+import net.consensys.cava.bytes.Bytes;
+
+import javax.annotation.Nullable;
+
+// Documentation copied under the ISC License, from
+// https://github.com/jedisct1/libsodium-doc/blob/424b7480562c2e063bc8c52c452ef891621c8480/hashing/generic_hashing.md
+
+/**
+ * Generic hashing.
+ *
+ * <p>
+ * Computes a fixed-length fingerprint for an arbitrary long message, using the BLAKE2b algorithm.
+ *
+ * <p>
+ * Sample use cases:
+ *
+ * <ul>
+ * <li>File integrity checking</li>
+ * <li>Creating unique identifiers to index arbitrary long data</li>
+ * </ul>
+ *
+ * <p>
+ * A key can be provided, in which case the same message will always produce the same fingerprint for a given key, but
+ * different keys used to hash the same message are very likely to produce distinct fingerprints.
+ */
+public final class GenericHash {
+  private GenericHash() {}
+
+  // initialized on first use, once libsodium has been loaded
+  private static final class Bounds {
+    static final int MIN_LENGTH = (int) Sodium.crypto_generichash_bytes_min();
+    static final int MAX_LENGTH = (int) Sodium.crypto_generichash_bytes_max();
+    static final int MIN_KEY_LENGTH = (int) Sodium.crypto_generichash_keybytes_min();
+    static final int MAX_KEY_LENGTH = (int) Sodium.crypto_generichash_keybytes_max();
+  }
+
+  /**
+   * @return The minimum length of a hash, in bytes.
+   */
+  public static int minLength() {
+    checkAvailable();
+    return Bounds.MIN_LENGTH;
+  }
+
+  /**
+   * @return The maximum length of a hash, in bytes.
+   */
+  public static int maxLength() {
+    checkAvailable();
+    return Bounds.MAX_LENGTH;
+  }
+
+  /**
+   * @return The recommended length of a hash, in bytes.
+   */
+  public static int recommendedLength() {
+    return (int) Sodium.crypto_generichash_bytes();
+  }
+
+  /**
+   * Hash an input.
+   *
+   * @param length The length of the hash, in bytes.
+   * @param input The input to hash.
+   * @return The hash of the input.
+   */
+  public static Bytes hash(int length, Bytes input) {
+    return Bytes.wrap(hash(length, input.toArrayUnsafe()));
+  }
+
+  /**
+   * Hash an input.
+   *
+   * @param length The length of the hash, in bytes.
+   * @param input The input to hash.
+   * @return The hash of the input.
+   */
+  public static byte[] hash(int length, byte[] input) {
+    return hash(length, input, null);
+  }
+
+  /**
+   * Hash an input using a key.
+   *
+   * @param length The length of the hash, in bytes.
+   * @param input The input to hash.
+   * @param key The key to use.
+   * @return The hash of the input.
+   */
+  public static Bytes hash(int length, Bytes input, Bytes key) {
+    return Bytes.wrap(hash(length, input.toArrayUnsafe(), key.toArrayUnsafe()));
+  }
+
+  /**
+   * Hash an input using a key.
+   *
+   * @param length The length of the hash, in bytes.
+   * @param input The input to hash.
+   * @param key The key to use, or {@code null} to hash without a key.
+   * @return The hash of the input.
+   */
+  public static byte[] hash(int length, byte[] input, @Nullable byte[] key) {
+    checkAvailable();
+    if (length < Bounds.MIN_LENGTH || length > Bounds.MAX_LENGTH) {
+      throw new IllegalArgumentException(
+          "length must be between " + Bounds.MIN_LENGTH + " and " + Bounds.MAX_LENGTH + " bytes, got " + length);
+    }
+    if (key != null && (key.length < Bounds.MIN_KEY_LENGTH || key.length > Bounds.MAX_KEY_LENGTH)) {
+      throw new IllegalArgumentException(
+          "key must be between " + Bounds.MIN_KEY_LENGTH + " and " + Bounds.MAX_KEY_LENGTH + " bytes, got "
+              + key.length);
+    }
+    byte[] out = new byte[length];
+    int rc = Sodium.crypto_generichash(out, length, input, input.length, key, (key == null) ? 0 : key.length);
+    if (rc != 0) {
+      throw new SodiumException("crypto_generichash: failed with result " + rc);
+    }
+    return out;
+  }
+
+  // checked before the bounds are first read, so that a failure to load libsodium does not leave them uninitializable
+  private static void checkAvailable() {
+    if (!Sodium.isAvailable()) {
+      throw new SodiumException("libsodium is not available");
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.crypto.sodium;
+
+import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.bytes.Bytes32;
+
+/**
+ * SHA-256 hashing.
+ *
+ * <p>
+ * Computes the SHA-256 digest of an input, using the implementation provided by the native sodium library.
+ */
+public final class SHA256Hash {
+  private SHA256Hash() {}
+
+  /**
+   * Hash an input.
+   *
+   * @param input The input to hash.
+   * @return The SHA-256 digest of the input.
+   */
+  public static Bytes32 hash(Bytes input) {
+    return Bytes32.wrap(hash(input.toArrayUnsafe()));
+  }
+
+  /**
+   * Hash an input.
+   *
+   * @param input The input to hash.
+   * @return The SHA-256 digest of the input.
+   */
+  public static byte[] hash(byte[] input) {
+    byte[] out = new byte[Bytes32.SIZE];
+    int rc = Sodium.crypto_hash_sha256(out, input, input.length);
+    if (rc != 0) {
+      throw new SodiumException("crypto_hash_sha256: failed with result " + rc);
+    }
+    return out;
+  }
+}
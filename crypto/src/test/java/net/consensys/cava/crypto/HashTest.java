@@ -16,8 +16,13 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.*;
 
 import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.bytes.Bytes32;
+import net.consensys.cava.bytes.MutableBytes32;
 import net.consensys.cava.junit.BouncyCastleExtension;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
@@ -78,6 +83,87 @@ class HashTest {
     assertArrayEquals(Bytes.fromHexString(cowKeccak256).toArray(), resultCow2);
   }
 
+  @Test
+  void keccak256IntoProvidedValue() {
+    String horseKeccak256 = "c87f65ff3f271bf5dc8643484f66b200109caffe4bf98c4cb393dc35740b28c0";
+    String cowKeccak256 = "c85ef7d79691fe79573b1a7064c19c1a9819ebdbd1faaab1a8ec92344438aaf4";
+
+    MutableBytes32 out = MutableBytes32.create();
+    assertSame(out, Hash.keccak256(Bytes.wrap("horse".getBytes(UTF_8)), out));
+    assertEquals(Bytes.fromHexString(horseKeccak256), out);
+
+    // reusing the output value and the thread's digest must not leak state between calls
+    Hash.keccak256(Bytes.wrap("cow".getBytes(UTF_8)), out);
+    assertEquals(Bytes.fromHexString(cowKeccak256), out);
+    assertEquals(Hash.keccak256(Bytes.wrap("cow".getBytes(UTF_8))), out);
+
+    byte[] backing = new byte[40];
+    Hash.keccak256(Bytes.wrap("horse".getBytes(UTF_8)), MutableBytes32.wrap(backing, 4));
+    assertEquals(Bytes.fromHexString(horseKeccak256), Bytes.wrap(backing, 4, 32));
+  }
+
+  @Test
+  void sha2_256IntoProvidedValue() {
+    String horseSha2 = "fd62862b6dc213bee77c2badd6311528253c6cb3107e03c16051aa15584eca1c";
+
+    MutableBytes32 out = MutableBytes32.create();
+    Hash.sha2_256(Bytes.wrap("horse".getBytes(UTF_8)), out);
+    assertEquals(Bytes.fromHexString(horseSha2), out);
+  }
+
+  @Test
+  void digestsAreNotSharedBetweenThreads() throws Exception {
+    Bytes input = Bytes.wrap("horse".getBytes(UTF_8));
+    Bytes expected = Hash.keccak256(input);
+    Bytes[] results = new Bytes[4];
+    Thread[] threads = new Thread[results.length];
+    for (int i = 0; i < threads.length; ++i) {
+      int index = i;
+      threads[i] = new Thread(() -> {
+        Bytes result = null;
+        for (int j = 0; j < 1000; ++j) {
+          result = Hash.keccak256(input);
+        }
+        results[index] = result;
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (Bytes result : results) {
+      assertEquals(expected, result);
+    }
+  }
+
+  @Test
+  void keccak256Batch() {
+    Random random = new Random(1);
+    Bytes[] inputs = new Bytes[100];
+    for (int i = 0; i < inputs.length; ++i) {
+      byte[] value = new byte[random.nextInt(200)];
+      random.nextBytes(value);
+      inputs[i] = Bytes.wrap(value);
+    }
+
+    Bytes32[] sequential = new Bytes32[inputs.length];
+    assertSame(sequential, Hash.keccak256(inputs, sequential));
+    Bytes32[] parallel = Hash.keccak256(inputs, new Bytes32[inputs.length], true);
+    Bytes32[] fromList = Hash.keccak256(Arrays.asList(inputs), new Bytes32[inputs.length], true);
+    for (int i = 0; i < inputs.length; ++i) {
+      Bytes32 expected = Hash.keccak256(inputs[i]);
+      assertEquals(expected, sequential[i]);
+      assertEquals(expected, parallel[i]);
+      assertEquals(expected, fromList[i]);
+    }
+  }
+
+  @Test
+  void keccak256BatchRejectsShortOutput() {
+    Bytes[] inputs = new Bytes[] {Bytes.of(1), Bytes.of(2)};
+    assertThrows(IllegalArgumentException.class, () -> Hash.keccak256(inputs, new Bytes32[1]));
+  }
+
   @Test
   void sha3_256() {
     String horseSha3 = "d8137088d21c7c0d69107cd51d1c32440a57aa5c59f73ed7310522ea491000ac";
@@ -115,4 +201,42 @@ class HashTest {
     byte[] resultCow2 = Hash.sha3_512("cow".getBytes(UTF_8));
     assertArrayEquals(Bytes.fromHexString(cowSha3).toArray(), resultCow2);
   }
+
+  @Test
+  void blake2b_256() {
+    String horseBlake2b = "e2050cc0b706af5a6a1f1eb0c1ddd4b4e0dce9f19039031a9c64c4bf284d8030";
+    String cowBlake2b = "49dacac652e57fba5307c78dc071cf54b2d5914e2bbf59f33e728431356fe36f";
+
+    Bytes resultHorse = Hash.blake2b_256(Bytes.wrap("horse".getBytes(UTF_8)));
+    assertEquals(Bytes.fromHexString(horseBlake2b), resultHorse);
+
+    byte[] resultHorse2 = Hash.blake2b_256("horse".getBytes(UTF_8));
+    assertArrayEquals(Bytes.fromHexString(horseBlake2b).toArray(), resultHorse2);
+
+    Bytes resultCow = Hash.blake2b_256(Bytes.wrap("cow".getBytes(UTF_8)));
+    assertEquals(Bytes.fromHexString(cowBlake2b), resultCow);
+
+    byte[] resultCow2 = Hash.blake2b_256("cow".getBytes(UTF_8));
+    assertArrayEquals(Bytes.fromHexString(cowBlake2b).toArray(), resultCow2);
+  }
+
+  @Test
+  void blake2b_512() {
+    String horseBlake2b = "6088a9b513474d3df1089268ef937d2c87d8ff3fbb54217ee4f8fa56103f4ec3"
+        + "a2cc8e38752518f449a1374c09f2090b31140b4ec7094d6c6b1014c92edfbf61";
+    String cowBlake2b = "068d7177aee848c3097dc63a2688212df6c34fe4a0c131388632d83aaf793a63"
+        + "97ad16ec2930c642a3293b0b103e60d3498a8e926da321a9c8ae6cb1c3401eba";
+
+    Bytes resultHorse = Hash.blake2b_512(Bytes.wrap("horse".getBytes(UTF_8)));
+    assertEquals(Bytes.fromHexString(horseBlake2b), resultHorse);
+
+    byte[] resultHorse2 = Hash.blake2b_512("horse".getBytes(UTF_8));
+    assertArrayEquals(Bytes.fromHexString(horseBlake2b).toArray(), resultHorse2);
+
+    Bytes resultCow = Hash.blake2b_512(Bytes.wrap("cow".getBytes(UTF_8)));
+    assertEquals(Bytes.fromHexString(cowBlake2b), resultCow);
+
+    byte[] resultCow2 = Hash.blake2b_512("cow".getBytes(UTF_8));
+    assertArrayEquals(Bytes.fromHexString(cowBlake2b).toArray(), resultCow2);
+  }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.crypto.sodium;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import net.consensys.cava.bytes.Bytes;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class GenericHashTest {
+
+  @BeforeAll
+  static void checkAvailable() {
+    assumeTrue(Sodium.isAvailable());
+  }
+
+  @Test
+  void hashValue() {
+    Bytes input = Bytes.wrap("horse".getBytes(UTF_8));
+    assertEquals(
+        Bytes.fromHexString("e2050cc0b706af5a6a1f1eb0c1ddd4b4e0dce9f19039031a9c64c4bf284d8030"),
+        GenericHash.hash(32, input));
+    assertEquals(64, GenericHash.hash(64, input).size());
+  }
+
+  @Test
+  void hashValueWithKey() {
+    Bytes input = Bytes.wrap("horse".getBytes(UTF_8));
+    Bytes key = Bytes.wrap(new byte[32]);
+    Bytes keyed = GenericHash.hash(32, input, key);
+    assertEquals(keyed, GenericHash.hash(32, input, key));
+    assertNotEquals(GenericHash.hash(32, input), keyed);
+  }
+
+  @Test
+  void rejectsInvalidLength() {
+    byte[] input = "horse".getBytes(UTF_8);
+    assertThrows(IllegalArgumentException.class, () -> GenericHash.hash(GenericHash.maxLength() + 1, input));
+  }
+}
@@ -105,7 +105,18 @@ public final class Block {
    * @return The RLP serialized form of this block.
    */
   public Bytes toBytes() {
-    return RLP.encodeList(this::writeTo);
+    return RLP.encodeList(payloadLength(), this::writeTo);
+  }
+
+  /**
+   * @return The length of the RLP serialized form of this block.
+   */
+  public int encodedLength() {
+    return RLP.encodedListLength(payloadLength());
+  }
+
+  private int payloadLength() {
+    return header.encodedLength() + body.payloadLength();
   }
 
   /**
@@ -114,7 +125,7 @@ public final class Block {
    * @param writer The RLP writer.
    */
   public void writeTo(RLPWriter writer) {
-    writer.writeList(header::writeTo);
+    writer.writeList(header.payloadLength(), header::writeTo);
     body.writeTo(writer);
   }
 }
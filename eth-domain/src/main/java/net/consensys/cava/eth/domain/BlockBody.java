@@ -13,14 +13,18 @@
 package net.consensys.cava.eth.domain;
 
 import static java.util.Objects.requireNonNull;
+import static net.consensys.cava.crypto.Hash.keccak256;
 
 import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.bytes.Bytes32;
 import net.consensys.cava.rlp.RLP;
 import net.consensys.cava.rlp.RLPReader;
 import net.consensys.cava.rlp.RLPWriter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.google.common.base.Objects;
 
@@ -41,20 +45,7 @@ public final class BlockBody {
   }
 
   static BlockBody readFrom(RLPReader reader) {
-    List<Transaction> txs = new ArrayList<>();
-    reader.readList((listReader, l) -> {
-      while (!listReader.isComplete()) {
-        txs.add(listReader.readList(Transaction::readFrom));
-      }
-    });
-    List<BlockHeader> ommers = new ArrayList<>();
-    reader.readList((listReader, l) -> {
-      while (!listReader.isComplete()) {
-        ommers.add(listReader.readList(BlockHeader::readFrom));
-      }
-    });
-
-    return new BlockBody(txs, ommers);
+    return new BlockBody(DomainCodecs.TRANSACTION_LIST.decode(reader), DomainCodecs.BLOCK_HEADER_LIST.decode(reader));
   }
 
   private final List<Transaction> transactions;
@@ -87,6 +78,46 @@ public final class BlockBody {
     return ommers;
   }
 
+  /**
+   * Compute the hashes of the transactions of the block.
+   *
+   * <p>
+   * The transactions are hashed as a single batch, and the hash of each transaction is retained for later calls to
+   * {@link Transaction#hash()}.
+   *
+   * @param parallel {@code true} to hash the transactions concurrently using the common fork-join pool.
+   * @return The hashes of the transactions, in the order of the transactions.
+   */
+  public List<Hash> transactionHashes(boolean parallel) {
+    int size = transactions.size();
+    Bytes[] encoded = new Bytes[size];
+    for (int i = 0; i < size; ++i) {
+      encoded[i] = transactions.get(i).toBytes();
+    }
+    Bytes32[] digests = keccak256(encoded, new Bytes32[size], parallel);
+    List<Hash> hashes = new ArrayList<>(size);
+    for (int i = 0; i < size; ++i) {
+      Hash hash = Hash.fromBytes(digests[i]);
+      transactions.get(i).cacheHash(hash);
+      hashes.add(hash);
+    }
+    return hashes;
+  }
+
+  /**
+   * Recover the senders of the transactions of the block.
+   *
+   * <p>
+   * The sender of each transaction is retained for later calls to {@link Transaction#sender()}.
+   *
+   * @param parallel {@code true} to recover the senders concurrently using the common fork-join pool.
+   * @return The senders of the transactions, in the order of the transactions.
+   */
+  public List<Address> transactionSenders(boolean parallel) {
+    Stream<Transaction> stream = parallel ? transactions.parallelStream() : transactions.stream();
+    return stream.map(Transaction::sender).collect(Collectors.toList());
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (this == obj) {
@@ -108,7 +139,34 @@ public final class BlockBody {
    * @return The RLP serialized form of this block body.
    */
   public Bytes toBytes() {
-    return RLP.encodeList(this::writeTo);
+    return RLP.encodeList(payloadLength(), this::writeTo);
+  }
+
+  /**
+   * @return The length of the RLP serialized form of this block body.
+   */
+  public int encodedLength() {
+    return RLP.encodedListLength(payloadLength());
+  }
+
+  int payloadLength() {
+    return RLP.encodedListLength(transactionsLength()) + RLP.encodedListLength(ommersLength());
+  }
+
+  private int transactionsLength() {
+    int length = 0;
+    for (Transaction tx : transactions) {
+      length += tx.encodedLength();
+    }
+    return length;
+  }
+
+  private int ommersLength() {
+    int length = 0;
+    for (BlockHeader ommer : ommers) {
+      length += ommer.encodedLength();
+    }
+    return length;
   }
 
   @Override
@@ -117,14 +175,14 @@ public final class BlockBody {
   }
 
   void writeTo(RLPWriter writer) {
-    writer.writeList(listWriter -> {
+    writer.writeList(transactionsLength(), listWriter -> {
       for (Transaction tx : transactions) {
-        listWriter.writeList(tx::writeTo);
+        listWriter.writeList(tx.payloadLength(), tx::writeTo);
       }
     });
-    writer.writeList(listWriter -> {
+    writer.writeList(ommersLength(), listWriter -> {
       for (BlockHeader ommer : ommers) {
-        listWriter.writeList(ommer::writeTo);
+        listWriter.writeList(ommer.payloadLength(), ommer::writeTo);
       }
     });
   }
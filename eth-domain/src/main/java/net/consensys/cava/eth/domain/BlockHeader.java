@@ -355,7 +355,32 @@ public final class BlockHeader {
    * @return The RLP serialized form of this block header.
    */
   public Bytes toBytes() {
-    return RLP.encodeList(this::writeTo);
+    return RLP.encodeList(payloadLength(), this::writeTo);
+  }
+
+  /**
+   * @return The length of the RLP serialized form of this block header.
+   */
+  public int encodedLength() {
+    return RLP.encodedListLength(payloadLength());
+  }
+
+  int payloadLength() {
+    return ((parentHash != null) ? RLP.encodedValueLength(parentHash.toBytes()) : 1)
+        + RLP.encodedValueLength(ommersHash.toBytes())
+        + RLP.encodedValueLength(coinbase.toBytes())
+        + RLP.encodedValueLength(stateRoot.toBytes())
+        + RLP.encodedValueLength(transactionsRoot.toBytes())
+        + RLP.encodedValueLength(receiptsRoot.toBytes())
+        + RLP.encodedValueLength(logsBloom)
+        + RLP.encodedUInt256Length(difficulty)
+        + RLP.encodedUInt256Length(number)
+        + RLP.encodedValueLength(gasLimit.toMinimalBytes())
+        + RLP.encodedValueLength(gasUsed.toMinimalBytes())
+        + RLP.encodedLongLength(timestamp.getEpochSecond())
+        + RLP.encodedValueLength(extraData)
+        + RLP.encodedValueLength(mixHash.toBytes())
+        + RLP.encodedValueLength(nonce);
   }
 
   /**
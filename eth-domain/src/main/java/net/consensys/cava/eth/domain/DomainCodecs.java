@@ -0,0 +1,242 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.eth.domain;
+
+import static java.util.Objects.requireNonNull;
+
+import net.consensys.cava.rlp.RLP;
+import net.consensys.cava.rlp.RLPCodec;
+import net.consensys.cava.rlp.RLPCodecRegistry;
+import net.consensys.cava.rlp.RLPReader;
+import net.consensys.cava.rlp.RLPWriter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link RLPCodec}s for Ethereum domain objects.
+ */
+public final class DomainCodecs {
+  private DomainCodecs() {}
+
+  /**
+   * A codec for addresses, encoded as a 20 byte value.
+   */
+  public static final RLPCodec<Address> ADDRESS = new AddressCodec();
+
+  /**
+   * A codec for hashes, encoded as a 32 byte value.
+   */
+  public static final RLPCodec<Hash> HASH = new HashCodec();
+
+  /**
+   * A codec for transactions.
+   *
+   * <p>
+   * The fields of a transaction are decoded in the same way as by {@link Transaction#readFrom(RLPReader)}.
+   */
+  public static final RLPCodec<Transaction> TRANSACTION = new TransactionCodec();
+
+  /**
+   * A codec for block headers.
+   *
+   * <p>
+   * The fields of a block header are decoded in the same way as by {@link BlockHeader#fromBytes}.
+   */
+  public static final RLPCodec<BlockHeader> BLOCK_HEADER = new BlockHeaderCodec();
+
+  /**
+   * A codec for lists of transactions.
+   */
+  public static final RLPCodec<List<Transaction>> TRANSACTION_LIST = RLPCodec.listOf(TRANSACTION);
+
+  /**
+   * A codec for lists of block headers, such as the ommers of a block.
+   */
+  public static final RLPCodec<List<BlockHeader>> BLOCK_HEADER_LIST = RLPCodec.listOf(BLOCK_HEADER);
+
+  // shared with the block codec, which encodes the fields of the body inline
+  private static final BlockBodyCodec BLOCK_BODY_CODEC = new BlockBodyCodec(TRANSACTION_LIST, BLOCK_HEADER_LIST);
+
+  /**
+   * A codec for block bodies.
+   */
+  public static final RLPCodec<BlockBody> BLOCK_BODY = BLOCK_BODY_CODEC;
+
+  /**
+   * A codec for blocks.
+   */
+  public static final RLPCodec<Block> BLOCK = new BlockCodec(BLOCK_HEADER, BLOCK_BODY_CODEC);
+
+  /**
+   * Register the codecs for Ethereum domain objects.
+   *
+   * @param registry The registry to add the codecs to.
+   * @return The registry.
+   * @throws IllegalArgumentException If the registry already contains a codec for one of the domain objects.
+   */
+  public static RLPCodecRegistry register(RLPCodecRegistry registry) {
+    requireNonNull(registry);
+    return registry
+        .register(Address.class, ADDRESS)
+        .register(Hash.class, HASH)
+        .register(Transaction.class, TRANSACTION)
+        .register(BlockHeader.class, BLOCK_HEADER)
+        .register(BlockBody.class, BLOCK_BODY)
+        .register(Block.class, BLOCK);
+  }
+
+  private static final class AddressCodec implements RLPCodec<Address> {
+    @Override
+    public void encode(Address value, RLPWriter writer) {
+      writer.writeValue(value.toBytes());
+    }
+
+    @Override
+    public Address decode(RLPReader reader) {
+      return Address.fromBytes(reader.readValue());
+    }
+
+    @Override
+    public int encodedSize(Address value) {
+      return RLP.encodedValueLength(value.toBytes());
+    }
+  }
+
+  private static final class HashCodec implements RLPCodec<Hash> {
+    @Override
+    public void encode(Hash value, RLPWriter writer) {
+      writer.writeValue(value.toBytes());
+    }
+
+    @Override
+    public Hash decode(RLPReader reader) {
+      return Hash.fromBytes(reader.readValue());
+    }
+
+    @Override
+    public int encodedSize(Hash value) {
+      return RLP.encodedValueLength(value.toBytes());
+    }
+  }
+
+  private static final class TransactionCodec implements RLPCodec<Transaction> {
+    @Override
+    public void encode(Transaction value, RLPWriter writer) {
+      writer.writeList(value.payloadLength(), value::writeTo);
+    }
+
+    @Override
+    public Transaction decode(RLPReader reader) {
+      return reader.readList(Transaction::readFrom);
+    }
+
+    @Override
+    public int encodedSize(Transaction value) {
+      return value.encodedLength();
+    }
+  }
+
+  private static final class BlockHeaderCodec implements RLPCodec<BlockHeader> {
+    @Override
+    public void encode(BlockHeader value, RLPWriter writer) {
+      writer.writeList(value.payloadLength(), value::writeTo);
+    }
+
+    @Override
+    public BlockHeader decode(RLPReader reader) {
+      return reader.readList(BlockHeader::readFrom);
+    }
+
+    @Override
+    public int encodedSize(BlockHeader value) {
+      return value.encodedLength();
+    }
+  }
+
+  private static final class BlockBodyCodec implements RLPCodec<BlockBody> {
+    private final RLPCodec<List<Transaction>> transactionsCodec;
+    private final RLPCodec<List<BlockHeader>> ommersCodec;
+    private final Function<RLPReader, BlockBody> fieldsDecoder = this::decodeFields;
+
+    BlockBodyCodec(RLPCodec<List<Transaction>> transactionsCodec, RLPCodec<List<BlockHeader>> ommersCodec) {
+      this.transactionsCodec = transactionsCodec;
+      this.ommersCodec = ommersCodec;
+    }
+
+    @Override
+    public void encode(BlockBody value, RLPWriter writer) {
+      writer.writeList(payloadLength(value), listWriter -> encodeFields(value, listWriter));
+    }
+
+    @Override
+    public BlockBody decode(RLPReader reader) {
+      return reader.readList(fieldsDecoder);
+    }
+
+    @Override
+    public int encodedSize(BlockBody value) {
+      return RLP.encodedListLength(payloadLength(value));
+    }
+
+    int payloadLength(BlockBody value) {
+      return transactionsCodec.encodedSize(value.transactions()) + ommersCodec.encodedSize(value.ommers());
+    }
+
+    void encodeFields(BlockBody value, RLPWriter writer) {
+      transactionsCodec.encode(value.transactions(), writer);
+      ommersCodec.encode(value.ommers(), writer);
+    }
+
+    BlockBody decodeFields(RLPReader reader) {
+      return new BlockBody(transactionsCodec.decode(reader), ommersCodec.decode(reader));
+    }
+  }
+
+  private static final class BlockCodec implements RLPCodec<Block> {
+    private final RLPCodec<BlockHeader> headerCodec;
+    private final BlockBodyCodec bodyCodec;
+    private final Function<RLPReader, Block> fieldsDecoder = this::decodeFields;
+
+    BlockCodec(RLPCodec<BlockHeader> headerCodec, BlockBodyCodec bodyCodec) {
+      this.headerCodec = headerCodec;
+      this.bodyCodec = bodyCodec;
+    }
+
+    @Override
+    public void encode(Block value, RLPWriter writer) {
+      writer.writeList(payloadLength(value), listWriter -> {
+        headerCodec.encode(value.header(), listWriter);
+        bodyCodec.encodeFields(value.body(), listWriter);
+      });
+    }
+
+    @Override
+    public Block decode(RLPReader reader) {
+      return reader.readList(fieldsDecoder);
+    }
+
+    @Override
+    public int encodedSize(Block value) {
+      return RLP.encodedListLength(payloadLength(value));
+    }
+
+    private int payloadLength(Block value) {
+      return headerCodec.encodedSize(value.header()) + bodyCodec.payloadLength(value.body());
+    }
+
+    private Block decodeFields(RLPReader reader) {
+      return new Block(headerCodec.decode(reader), bodyCodec.decodeFields(reader));
+    }
+  }
+}
@@ -108,6 +108,8 @@ public final class Transaction {
   private final Signature signature;
   private final Bytes payload;
   private SoftReference<Hash> hash;
+  @Nullable
+  private Address sender;
 
   /**
    * Create a transaction.
@@ -214,10 +216,28 @@ public final class Transaction {
     return hashed;
   }
 
+  void cacheHash(Hash hashed) {
+    hash = new SoftReference<>(hashed);
+  }
+
   /**
+   * Recover and return the sender of this transaction.
+   *
+   * <p>
+   * Note: the sender is recovered from the signature on first access and retained for future access.
+   *
    * @return The sender of the transaction.
    */
   public Address sender() {
+    Address recovered = sender;
+    if (recovered == null) {
+      recovered = recoverSender();
+      sender = recovered;
+    }
+    return recovered;
+  }
+
+  private Address recoverSender() {
     PublicKey publicKey = PublicKey.recoverFromSignature(RLP.encodeList(writer -> {
       writer.writeValue(nonce().toMinimalBytes());
       writer.writeValue(gasPrice().toMinimalBytes());
@@ -277,7 +297,26 @@ public final class Transaction {
    * @return The RLP serialized form of this transaction.
    */
   public Bytes toBytes() {
-    return RLP.encodeList(this::writeTo);
+    return RLP.encodeList(payloadLength(), this::writeTo);
+  }
+
+  /**
+   * @return The length of the RLP serialized form of this transaction.
+   */
+  public int encodedLength() {
+    return RLP.encodedListLength(payloadLength());
+  }
+
+  int payloadLength() {
+    return RLP.encodedUInt256Length(nonce)
+        + RLP.encodedUInt256Length(gasPrice.uint256Value())
+        + RLP.encodedValueLength(gasLimit.toMinimalBytes())
+        + ((to != null) ? RLP.encodedValueLength(to.toBytes()) : 1)
+        + RLP.encodedUInt256Length(value.uint256Value())
+        + RLP.encodedValueLength(payload)
+        + ((signature.v() & 0xFF) <= 0x7f ? 1 : 2)
+        + RLP.encodedBigIntegerLength(signature.r())
+        + RLP.encodedBigIntegerLength(signature.s());
   }
 
   /**
@@ -13,13 +13,19 @@
 package net.consensys.cava.eth.domain;
 
 import static net.consensys.cava.eth.domain.BlockHeaderTest.generateBlockHeader;
+import static net.consensys.cava.eth.domain.TransactionTest.addressOf;
+import static net.consensys.cava.eth.domain.TransactionTest.generateSignedTransaction;
 import static net.consensys.cava.eth.domain.TransactionTest.generateTransaction;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.crypto.SECP256K1.KeyPair;
 import net.consensys.cava.junit.BouncyCastleExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -41,6 +47,42 @@ class BlockBodyTest {
     Bytes encoded = blockBody.toBytes();
     BlockBody read = BlockBody.fromBytes(encoded);
     assertEquals(blockBody, read);
+    assertEquals(encoded.size(), blockBody.encodedLength());
   }
 
+  @Test
+  void testTransactionHashes() {
+    List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 40; ++i) {
+      transactions.add(generateTransaction());
+    }
+    BlockBody blockBody = new BlockBody(transactions, Collections.emptyList());
+    List<Hash> sequential = blockBody.transactionHashes(false);
+    List<Hash> parallel = blockBody.transactionHashes(true);
+    assertEquals(transactions.size(), sequential.size());
+    assertEquals(sequential, parallel);
+    for (int i = 0; i < transactions.size(); ++i) {
+      assertEquals(Hash.hash(transactions.get(i).toBytes()), sequential.get(i));
+      assertEquals(sequential.get(i), transactions.get(i).hash());
+    }
+  }
+
+  @Test
+  void testTransactionSenders() {
+    List<KeyPair> keyPairs = new ArrayList<>();
+    List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 20; ++i) {
+      KeyPair keyPair = KeyPair.random();
+      keyPairs.add(keyPair);
+      transactions.add(generateSignedTransaction(keyPair, i));
+    }
+    BlockBody blockBody = new BlockBody(transactions, Collections.emptyList());
+    List<Address> parallel = blockBody.transactionSenders(true);
+    assertEquals(transactions.size(), parallel.size());
+    for (int i = 0; i < transactions.size(); ++i) {
+      assertEquals(addressOf(keyPairs.get(i)), parallel.get(i));
+    }
+    BlockBody decoded = BlockBody.fromBytes(blockBody.toBytes());
+    assertEquals(parallel, decoded.transactionSenders(false));
+  }
 }
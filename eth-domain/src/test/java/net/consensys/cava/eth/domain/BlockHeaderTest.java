@@ -55,4 +55,10 @@ class BlockHeaderTest {
     assertEquals(blockHeader, read);
   }
 
+  @Test
+  void encodedLength() {
+    BlockHeader blockHeader = generateBlockHeader();
+    assertEquals(blockHeader.toBytes().size(), blockHeader.encodedLength());
+  }
+
 }
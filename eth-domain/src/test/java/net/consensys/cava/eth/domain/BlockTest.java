@@ -43,5 +43,6 @@ class BlockTest {
     Bytes encoded = block.toBytes();
     Block read = Block.fromBytes(encoded);
     assertEquals(block, read);
+    assertEquals(encoded.size(), block.encodedLength());
   }
 }
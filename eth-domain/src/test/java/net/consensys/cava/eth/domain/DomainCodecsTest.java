@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.eth.domain;
+
+import static net.consensys.cava.eth.domain.BlockHeaderTest.generateBlockHeader;
+import static net.consensys.cava.eth.domain.TransactionTest.generateTransaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.junit.BouncyCastleExtension;
+import net.consensys.cava.rlp.RLP;
+import net.consensys.cava.rlp.RLPCodecRegistry;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(BouncyCastleExtension.class)
+class DomainCodecsTest {
+
+  private static Block generateBlock() {
+    return new Block(
+        generateBlockHeader(),
+        new BlockBody(
+            Arrays.asList(generateTransaction(), generateTransaction(), generateTransaction()),
+            Arrays.asList(generateBlockHeader(), generateBlockHeader())));
+  }
+
+  @Test
+  void shouldEncodeLikeDomainObjects() {
+    Block block = generateBlock();
+    assertEquals(block.toBytes(), RLP.encode(block, DomainCodecs.BLOCK));
+    assertEquals(block.body().toBytes(), RLP.encode(block.body(), DomainCodecs.BLOCK_BODY));
+    assertEquals(block.header().toBytes(), RLP.encode(block.header(), DomainCodecs.BLOCK_HEADER));
+    Transaction tx = block.body().transactions().get(0);
+    assertEquals(tx.toBytes(), RLP.encode(tx, DomainCodecs.TRANSACTION));
+    assertEquals(block.encodedLength(), DomainCodecs.BLOCK.encodedSize(block));
+  }
+
+  @Test
+  void shouldRoundtripBlocks() {
+    Block block = generateBlock();
+    assertEquals(block, RLP.decode(RLP.encode(block, DomainCodecs.BLOCK), DomainCodecs.BLOCK));
+    assertEquals(block, Block.fromBytes(RLP.encode(block, DomainCodecs.BLOCK)));
+  }
+
+  @Test
+  void shouldRoundtripValues() {
+    Hash hash = Hash.fromBytes(Bytes.wrap(new byte[32]));
+    assertEquals(hash, RLP.decode(RLP.encode(hash, DomainCodecs.HASH), DomainCodecs.HASH));
+    Address address = Address.fromBytes(Bytes.fromHexString("0x0102030405060708090a0b0c0d0e0f1011121314"));
+    assertEquals(21, DomainCodecs.ADDRESS.encodedSize(address));
+    assertEquals(address, RLP.decode(RLP.encode(address, DomainCodecs.ADDRESS), DomainCodecs.ADDRESS));
+  }
+
+  @Test
+  void shouldRegisterCodecs() {
+    RLPCodecRegistry registry = DomainCodecs.register(new RLPCodecRegistry());
+    Block block = generateBlock();
+    Bytes encoded = registry.encode(Block.class, block);
+    assertEquals(block.toBytes(), encoded);
+    assertEquals(block, registry.decode(Block.class, encoded));
+    assertEquals(block.body(), registry.decode(BlockBody.class, block.body().toBytes()));
+    assertThrows(IllegalArgumentException.class, () -> DomainCodecs.register(registry));
+  }
+}
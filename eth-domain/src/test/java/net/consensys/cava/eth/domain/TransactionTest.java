@@ -13,10 +13,15 @@
 package net.consensys.cava.eth.domain;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.crypto.Hash;
+import net.consensys.cava.crypto.SECP256K1;
+import net.consensys.cava.crypto.SECP256K1.KeyPair;
 import net.consensys.cava.crypto.SECP256K1.Signature;
 import net.consensys.cava.junit.BouncyCastleExtension;
+import net.consensys.cava.rlp.RLP;
 import net.consensys.cava.units.bigints.UInt256;
 import net.consensys.cava.units.ethereum.Gas;
 import net.consensys.cava.units.ethereum.Wei;
@@ -48,6 +53,29 @@ class TransactionTest {
         Signature.create(randomBytes(65)));
   }
 
+  static Transaction generateSignedTransaction(KeyPair keyPair, long nonce) {
+    UInt256 txNonce = UInt256.valueOf(nonce);
+    Wei gasPrice = Wei.valueOf(BigInteger.valueOf(5L));
+    Gas gasLimit = Gas.valueOf(10L);
+    Address to = Address.fromBytes(Bytes.fromHexString("0x0102030405060708091011121314151617181920"));
+    Wei value = Wei.valueOf(10L);
+    Bytes payload = Bytes.of(1, 2, 3, 4);
+    Bytes unsigned = RLP.encodeList(writer -> {
+      writer.writeValue(txNonce.toMinimalBytes());
+      writer.writeValue(gasPrice.toMinimalBytes());
+      writer.writeValue(gasLimit.toMinimalBytes());
+      writer.writeValue(to.toBytes());
+      writer.writeValue(value.toMinimalBytes());
+      writer.writeValue(payload);
+    });
+    Signature signature = SECP256K1.sign(unsigned, keyPair);
+    return new Transaction(txNonce, gasPrice, gasLimit, to, value, payload, signature);
+  }
+
+  static Address addressOf(KeyPair keyPair) {
+    return Address.fromBytes(Hash.keccak256(keyPair.getPublicKey().encodedBytes()).slice(12, 20));
+  }
+
   @Test
   void testRLPRoundtrip() {
     Transaction tx = generateTransaction();
@@ -55,4 +83,22 @@ class TransactionTest {
     Transaction read = Transaction.fromBytes(encoded);
     assertEquals(tx, read);
   }
+
+  @Test
+  void testEncodedLength() {
+    Transaction tx = generateTransaction();
+    Bytes encoded = tx.toBytes();
+    assertEquals(encoded.size(), tx.encodedLength());
+    assertEquals(RLP.encodeList(tx::writeTo), encoded);
+  }
+
+  @Test
+  void testSender() {
+    KeyPair keyPair = KeyPair.random();
+    Transaction tx = generateSignedTransaction(keyPair, 1);
+    Address sender = tx.sender();
+    assertEquals(addressOf(keyPair), sender);
+    assertSame(sender, tx.sender());
+    assertEquals(sender, Transaction.fromBytes(tx.toBytes()).sender());
+  }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.kv
+
+import kotlinx.coroutines.experimental.CoroutineDispatcher
+import java.io.Closeable
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.LongAdder
+import kotlin.coroutines.experimental.CoroutineContext
+
+/**
+ * A coroutine dispatcher that executes blocking I/O on a bounded pool of daemon threads.
+ *
+ * Blocking storage operations should not run on the thread that resumed the calling coroutine, as that is often an
+ * event loop. This dispatcher confines them to a dedicated pool, which should be sized to match the parallelism of the
+ * underlying storage, and records the depth of its queue and the latency of the tasks it executes.
+ *
+ * @param threads The number of threads in the pool.
+ * @param name The prefix for the names of the pool threads.
+ */
+class BlockingIODispatcher(threads: Int, name: String) : CoroutineDispatcher(), Closeable {
+
+  companion object {
+    /**
+     * A shared dispatcher, with a thread for each available processor.
+     */
+    @JvmStatic
+    val DEFAULT: BlockingIODispatcher by lazy {
+      BlockingIODispatcher(Runtime.getRuntime().availableProcessors(), "cava-kv-io")
+    }
+  }
+
+  private val executor: ThreadPoolExecutor
+  private val completedTasks = LongAdder()
+  private val queuedNanos = LongAdder()
+  private val executionNanos = LongAdder()
+
+  init {
+    require(threads > 0) { "threads must be positive" }
+    val threadCount = AtomicInteger()
+    val threadFactory = ThreadFactory { runnable ->
+      val thread = Thread(runnable, name + "-" + threadCount.incrementAndGet())
+      thread.isDaemon = true
+      thread
+    }
+    executor = ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, LinkedBlockingQueue(), threadFactory)
+  }
+
+  override fun dispatch(context: CoroutineContext, block: Runnable) {
+    val submitted = System.nanoTime()
+    executor.execute {
+      val started = System.nanoTime()
+      queuedNanos.add(started - submitted)
+      try {
+        block.run()
+      } finally {
+        executionNanos.add(System.nanoTime() - started)
+        completedTasks.increment()
+      }
+    }
+  }
+
+  /**
+   * @return The number of tasks waiting for a thread.
+   */
+  fun queueDepth(): Int = executor.queue.size
+
+  /**
+   * @return The number of threads that are currently executing tasks.
+   */
+  fun activeCount(): Int = executor.activeCount
+
+  /**
+   * @return The total number of tasks that have completed execution.
+   */
+  fun completedTaskCount(): Long = completedTasks.sum()
+
+  /**
+   * @param unit The time unit of the result.
+   * @return The average time tasks have waited in the queue before executing.
+   */
+  fun averageQueueLatency(unit: TimeUnit): Long = average(queuedNanos, unit)
+
+  /**
+   * @param unit The time unit of the result.
+   * @return The average time tasks have spent executing.
+   */
+  fun averageExecutionLatency(unit: TimeUnit): Long = average(executionNanos, unit)
+
+  private fun average(nanos: LongAdder, unit: TimeUnit): Long {
+    val count = completedTasks.sum()
+    return if (count == 0L) 0L else unit.convert(nanos.sum() / count, TimeUnit.NANOSECONDS)
+  }
+
+  /**
+   * Stops accepting new tasks. Previously dispatched tasks will still be executed.
+   */
+  override fun close() {
+    executor.shutdown()
+  }
+
+  override fun toString(): String = "BlockingIODispatcher[queued=${queueDepth()}, active=${activeCount()}]"
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.kv
+
+import net.consensys.cava.bytes.Bytes
+import net.consensys.cava.concurrent.AsyncCompletion
+import net.consensys.cava.concurrent.coroutines.experimental.asyncCompletion
+
+/**
+ * A batch of updates to a [KeyValueStore].
+ *
+ * Updates are buffered in memory until the batch is committed, at which point they are written to the store together.
+ * Where the store supports it, the updates are applied atomically.
+ */
+interface KeyValueBatch {
+
+  /**
+   * Adds an entry to the batch.
+   *
+   * If the batch already contains an entry for the key, it is replaced.
+   *
+   * @param key The key to associate with the data, for use when retrieving.
+   * @param value the data to store.
+   */
+  fun put(key: Bytes, value: Bytes)
+
+  /**
+   * Adds a removal to the batch.
+   *
+   * If the batch already contains an entry for the key, it is replaced by the removal.
+   *
+   * @param key The key of the data to remove.
+   */
+  fun remove(key: Bytes)
+
+  /**
+   * The number of entries and removals in the batch.
+   *
+   * @return The number of entries and removals in the batch.
+   */
+  fun size(): Int
+
+  /**
+   * Writes all entries and removals in the batch to the store.
+   *
+   * Once committed, the batch is empty and may be reused.
+   */
+  suspend fun commit()
+
+  /**
+   * Writes all entries and removals in the batch to the store.
+   *
+   * Once committed, the batch is empty and may be reused.
+   *
+   * @return An [AsyncCompletion] that will complete when all the content is stored.
+   */
+  fun commitAsync(): AsyncCompletion = asyncCompletion { commit() }
+}
+
+internal class DefaultKeyValueBatch(private val store: KeyValueStore) : KeyValueBatch {
+
+  private var entries = LinkedHashMap<Bytes, Bytes>()
+  private var removals = LinkedHashSet<Bytes>()
+
+  override fun put(key: Bytes, value: Bytes) {
+    removals.remove(key)
+    entries[key] = value
+  }
+
+  override fun remove(key: Bytes) {
+    entries.remove(key)
+    removals.add(key)
+  }
+
+  override fun size(): Int = entries.size + removals.size
+
+  override suspend fun commit() {
+    val committingEntries = entries
+    val committingRemovals = removals
+    entries = LinkedHashMap()
+    removals = LinkedHashSet()
+    if (committingRemovals.isEmpty()) {
+      store.putAll(committingEntries)
+    } else {
+      store.updateAll(committingEntries, committingRemovals)
+    }
+  }
+}
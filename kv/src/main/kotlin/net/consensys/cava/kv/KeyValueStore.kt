@@ -20,12 +20,13 @@ import net.consensys.cava.concurrent.AsyncCompletion
 import net.consensys.cava.concurrent.AsyncResult
 import net.consensys.cava.concurrent.coroutines.experimental.asyncCompletion
 import net.consensys.cava.concurrent.coroutines.experimental.asyncResult
+import java.io.Closeable
 import java.util.Optional
 
 /**
  * A key-value store.
  */
-interface KeyValueStore {
+interface KeyValueStore : Closeable {
 
   /**
    * Retrieves data from the store.
@@ -63,4 +64,112 @@ interface KeyValueStore {
    * @return An [AsyncCompletion] that will complete when the content is stored.
    */
   fun putAsync(key: Bytes, value: Bytes): AsyncCompletion = asyncCompletion { put(key, value) }
+
+  /**
+   * Removes data from the store.
+   *
+   * @param key The key of the data to remove.
+   */
+  suspend fun remove(key: Bytes)
+
+  /**
+   * Removes data from the store.
+   *
+   * @param key The key of the data to remove.
+   * @return An [AsyncCompletion] that will complete when the content is removed.
+   */
+  fun removeAsync(key: Bytes): AsyncCompletion = asyncCompletion { remove(key) }
+
+  /**
+   * Retrieves multiple entries from the store.
+   *
+   * The default implementation calls [get] for each key. Implementations should override this method if they can
+   * retrieve multiple entries more efficiently.
+   *
+   * @param keys The keys for the content.
+   * @return A map containing the stored data for each key that is present in the store.
+   */
+  suspend fun getAll(keys: Collection<Bytes>): Map<Bytes, Bytes> {
+    val result = HashMap<Bytes, Bytes>()
+    for (key in keys) {
+      val value = get(key)
+      if (value != null) {
+        result[key] = value
+      }
+    }
+    return result
+  }
+
+  /**
+   * Retrieves multiple entries from the store.
+   *
+   * @param keys The keys for the content.
+   * @return An [AsyncResult] that will complete with a map containing the stored data for each key that is present in
+   *         the store.
+   */
+  fun getAllAsync(keys: Collection<Bytes>): AsyncResult<Map<Bytes, Bytes>> = asyncResult { getAll(keys) }
+
+  /**
+   * Puts multiple entries into the store.
+   *
+   * The default implementation calls [put] for each entry. Implementations should override this method if they can
+   * write multiple entries more efficiently, and should apply the entries atomically where supported.
+   *
+   * @param entries The keys and data to store.
+   */
+  suspend fun putAll(entries: Map<Bytes, Bytes>) {
+    for ((key, value) in entries) {
+      put(key, value)
+    }
+  }
+
+  /**
+   * Puts multiple entries into the store.
+   *
+   * @param entries The keys and data to store.
+   * @return An [AsyncCompletion] that will complete when all the content is stored.
+   */
+  fun putAllAsync(entries: Map<Bytes, Bytes>): AsyncCompletion = asyncCompletion { putAll(entries) }
+
+  /**
+   * Puts and removes multiple entries in the store.
+   *
+   * The default implementation calls [putAll] and then [remove] for each removed key. Implementations should override
+   * this method if they can apply the updates more efficiently, and should apply them atomically where supported.
+   *
+   * @param entries The keys and data to store.
+   * @param removals The keys of the data to remove. These must not also be present in [entries].
+   */
+  suspend fun updateAll(entries: Map<Bytes, Bytes>, removals: Collection<Bytes>) {
+    putAll(entries)
+    for (key in removals) {
+      remove(key)
+    }
+  }
+
+  /**
+   * Puts and removes multiple entries in the store.
+   *
+   * @param entries The keys and data to store.
+   * @param removals The keys of the data to remove. These must not also be present in [entries].
+   * @return An [AsyncCompletion] that will complete when all the updates are applied.
+   */
+  fun updateAllAsync(entries: Map<Bytes, Bytes>, removals: Collection<Bytes>): AsyncCompletion =
+    asyncCompletion { updateAll(entries, removals) }
+
+  /**
+   * Creates a new batch of updates for this store.
+   *
+   * Updates are buffered in the batch, and only written to the store when the batch is committed.
+   *
+   * @return A new, empty batch.
+   */
+  fun batch(): KeyValueBatch = DefaultKeyValueBatch(this)
+
+  /**
+   * Closes the store, releasing any underlying resources.
+   *
+   * The default implementation does nothing.
+   */
+  override fun close() {}
 }
@@ -15,17 +15,44 @@
  */
 package net.consensys.cava.kv
 
-import kotlinx.coroutines.experimental.Unconfined
+import kotlinx.coroutines.experimental.CoroutineDispatcher
+import kotlinx.coroutines.experimental.channels.ReceiveChannel
+import kotlinx.coroutines.experimental.channels.produce
 import kotlinx.coroutines.experimental.withContext
 import net.consensys.cava.bytes.Bytes
 import org.iq80.leveldb.DB
+import org.iq80.leveldb.ReadOptions
 
 /**
  * A key-value store backed by LevelDB.
+ *
+ * LevelDB reads and writes block the calling thread, so they are executed using a dedicated dispatcher rather than on
+ * the thread of the calling coroutine.
+ *
+ * @param levelDB The LevelDB database.
+ * @param dispatcher The dispatcher to execute blocking LevelDB operations on.
+ * @constructor Creates a store using the given dispatcher.
  */
-class LevelDBKeyValueStore(private val levelDB: DB) : KeyValueStore {
+class LevelDBKeyValueStore(
+  private val levelDB: DB,
+  private val dispatcher: CoroutineDispatcher
+) : SortedKeyValueStore {
+
+  companion object {
+    /**
+     * The number of entries buffered ahead of the consumer when iterating.
+     */
+    const val ITERATION_BUFFER_SIZE = 256
+  }
+
+  /**
+   * Creates a store using the shared [BlockingIODispatcher.DEFAULT] dispatcher.
+   *
+   * @param levelDB The LevelDB database.
+   */
+  constructor(levelDB: DB) : this(levelDB, BlockingIODispatcher.DEFAULT)
 
-  override suspend fun get(key: Bytes): Bytes? = withContext(Unconfined) {
+  override suspend fun get(key: Bytes): Bytes? = withContext(dispatcher) {
     val rawValue = levelDB[key.toArrayUnsafe()]
     if (rawValue == null) {
       null
@@ -34,7 +61,105 @@ class LevelDBKeyValueStore(private val levelDB: DB) : KeyValueStore {
     }
   }
 
-  override suspend fun put(key: Bytes, value: Bytes) = withContext(Unconfined) {
+  override suspend fun put(key: Bytes, value: Bytes) = withContext(dispatcher) {
     levelDB.put(key.toArrayUnsafe(), value.toArrayUnsafe())
   }
+
+  /**
+   * Retrieves multiple entries from the store.
+   *
+   * All entries are read from a single consistent snapshot of the database.
+   *
+   * @param keys The keys for the content.
+   * @return A map containing the stored data for each key that is present in the store.
+   */
+  override suspend fun getAll(keys: Collection<Bytes>): Map<Bytes, Bytes> = withContext(dispatcher) {
+    levelDB.snapshot.use { snapshot ->
+      val readOptions = ReadOptions().snapshot(snapshot)
+      val result = HashMap<Bytes, Bytes>()
+      for (key in keys) {
+        val rawValue = levelDB.get(key.toArrayUnsafe(), readOptions)
+        if (rawValue != null) {
+          result[key] = Bytes.wrap(rawValue)
+        }
+      }
+      result
+    }
+  }
+
+  /**
+   * Puts multiple entries into the store.
+   *
+   * All entries are written atomically using a single LevelDB write batch.
+   *
+   * @param entries The keys and data to store.
+   */
+  override suspend fun putAll(entries: Map<Bytes, Bytes>) = withContext(dispatcher) {
+    levelDB.createWriteBatch().use { batch ->
+      for ((key, value) in entries) {
+        batch.put(key.toArrayUnsafe(), value.toArrayUnsafe())
+      }
+      levelDB.write(batch)
+    }
+  }
+
+  override suspend fun remove(key: Bytes) = withContext(dispatcher) {
+    levelDB.delete(key.toArrayUnsafe())
+  }
+
+  /**
+   * Puts and removes multiple entries in the store.
+   *
+   * All updates are written atomically using a single LevelDB write batch.
+   *
+   * @param entries The keys and data to store.
+   * @param removals The keys of the data to remove.
+   */
+  override suspend fun updateAll(entries: Map<Bytes, Bytes>, removals: Collection<Bytes>) = withContext(dispatcher) {
+    levelDB.createWriteBatch().use { batch ->
+      for ((key, value) in entries) {
+        batch.put(key.toArrayUnsafe(), value.toArrayUnsafe())
+      }
+      for (key in removals) {
+        batch.delete(key.toArrayUnsafe())
+      }
+      levelDB.write(batch)
+    }
+  }
+
+  /**
+   * Streams the entries of the store in key order.
+   *
+   * Entries are read from a LevelDB iterator on the dispatcher, which reads ahead of the consumer by up to
+   * [ITERATION_BUFFER_SIZE] entries. The iterator is closed when the range is exhausted or the channel is cancelled.
+   *
+   * @param from The first key to include, or null to start from the first key in the store.
+   * @param to The key at which to stop (exclusive), or null to continue to the last key in the store.
+   * @return A channel of the entries in the range.
+   */
+  override fun entries(from: Bytes?, to: Bytes?): ReceiveChannel<Pair<Bytes, Bytes>> =
+    produce(dispatcher, ITERATION_BUFFER_SIZE) {
+      levelDB.iterator().use { iterator ->
+        if (from == null) {
+          iterator.seekToFirst()
+        } else {
+          iterator.seek(from.toArrayUnsafe())
+        }
+        while (iterator.hasNext()) {
+          val entry = iterator.next()
+          val key = Bytes.wrap(entry.key)
+          if (to != null && key >= to) {
+            break
+          }
+          send(Pair(key, Bytes.wrap(entry.value)))
+        }
+      }
+    }
+
+  /**
+   * Closes the underlying LevelDB database.
+   */
+  override fun close() {
+    levelDB.close()
+  }
 }
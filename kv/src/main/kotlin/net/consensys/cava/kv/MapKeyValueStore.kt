@@ -27,4 +27,12 @@ class MapKeyValueStore(private val map: MutableMap<Bytes, Bytes>) : KeyValueStor
   override suspend fun put(key: Bytes, value: Bytes) {
     map[key] = value
   }
+
+  override suspend fun putAll(entries: Map<Bytes, Bytes>) {
+    map.putAll(entries)
+  }
+
+  override suspend fun remove(key: Bytes) {
+    map.remove(key)
+  }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.kv
+
+import kotlinx.coroutines.experimental.channels.ReceiveChannel
+import net.consensys.cava.bytes.Bytes
+
+/**
+ * A key-value store that keeps its keys in unsigned lexicographic order, and supports iterating over ranges of keys.
+ */
+interface SortedKeyValueStore : KeyValueStore {
+
+  /**
+   * Streams the entries of the store in key order.
+   *
+   * Entries are produced lazily as the channel is consumed, so a range can be iterated without loading it into memory.
+   * Cancelling the channel releases any resources held by the iteration.
+   *
+   * @param from The first key to include, or null to start from the first key in the store.
+   * @param to The key at which to stop (exclusive), or null to continue to the last key in the store.
+   * @return A channel of the entries in the range.
+   */
+  fun entries(from: Bytes?, to: Bytes?): ReceiveChannel<Pair<Bytes, Bytes>>
+
+  /**
+   * Streams all entries of the store in key order.
+   *
+   * @return A channel of all the entries in the store.
+   */
+  fun entries(): ReceiveChannel<Pair<Bytes, Bytes>> = entries(null, null)
+
+  /**
+   * Streams the entries of the store whose keys start with the given prefix, in key order.
+   *
+   * @param prefix The prefix of the keys to include.
+   * @return A channel of the entries with the given prefix.
+   */
+  fun entriesWithPrefix(prefix: Bytes): ReceiveChannel<Pair<Bytes, Bytes>> = entries(prefix, prefixEnd(prefix))
+}
+
+/**
+ * Returns the smallest key that is greater than every key with the given prefix, or null if there is no such key.
+ */
+internal fun prefixEnd(prefix: Bytes): Bytes? {
+  var i = prefix.size() - 1
+  while (i >= 0 && prefix.get(i) == 0xFF.toByte()) {
+    i--
+  }
+  if (i < 0) {
+    return null
+  }
+  val end = prefix.slice(0, i + 1).mutableCopy()
+  end.set(i, (end.get(i) + 1).toByte())
+  return end
+}
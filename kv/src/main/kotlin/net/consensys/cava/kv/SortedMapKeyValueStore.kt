@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.kv
+
+import kotlinx.coroutines.experimental.Unconfined
+import kotlinx.coroutines.experimental.channels.ReceiveChannel
+import kotlinx.coroutines.experimental.channels.produce
+import net.consensys.cava.bytes.Bytes
+import java.util.NavigableMap
+import java.util.concurrent.ConcurrentSkipListMap
+
+/**
+ * A key-value store backed by an in-memory sorted Map.
+ *
+ * @param map The map, which must use the natural ordering of [Bytes], either by having no comparator or by using
+ *   [KEY_COMPARATOR] or [java.util.Comparator.naturalOrder].
+ * @constructor Creates a store backed by the given map.
+ */
+class SortedMapKeyValueStore(private val map: NavigableMap<Bytes, Bytes>) : SortedKeyValueStore {
+
+  companion object {
+    /**
+     * A comparator that orders keys in unsigned lexicographic order, which is the natural ordering of [Bytes].
+     */
+    @JvmField
+    val KEY_COMPARATOR: Comparator<Bytes> = naturalOrder()
+  }
+
+  /**
+   * Creates a store backed by a new concurrent sorted map.
+   */
+  constructor() : this(ConcurrentSkipListMap())
+
+  init {
+    val comparator = map.comparator()
+    require(comparator == null || isNaturalOrder(comparator)) { "map must be ordered by KEY_COMPARATOR" }
+  }
+
+  // comparators cannot be compared for equivalent orderings, so accept the known natural ordering singletons
+  private fun isNaturalOrder(comparator: Comparator<in Bytes>): Boolean =
+    comparator === KEY_COMPARATOR || comparator === java.util.Comparator.naturalOrder<Bytes>()
+
+  override suspend fun get(key: Bytes): Bytes? = map[key]
+
+  override suspend fun put(key: Bytes, value: Bytes) {
+    map[key] = value
+  }
+
+  override suspend fun putAll(entries: Map<Bytes, Bytes>) {
+    map.putAll(entries)
+  }
+
+  override suspend fun remove(key: Bytes) {
+    map.remove(key)
+  }
+
+  override fun entries(from: Bytes?, to: Bytes?): ReceiveChannel<Pair<Bytes, Bytes>> = produce(Unconfined) {
+    val range = if (from == null) {
+      if (to == null) map else map.headMap(to, false)
+    } else {
+      if (to == null) map.tailMap(from, true) else map.subMap(from, true, to, false)
+    }
+    for ((key, value) in range) {
+      send(Pair(key, value))
+    }
+  }
+}
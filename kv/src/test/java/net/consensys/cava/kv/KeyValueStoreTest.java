@@ -19,6 +19,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import net.consensys.cava.bytes.Bytes;
 import net.consensys.cava.concurrent.AsyncCompletion;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -45,4 +46,32 @@ class KeyValueStoreTest {
     KeyValueStore store = new MapKeyValueStore(map);
     assertFalse(store.getAsync(Bytes.of(123)).get().isPresent());
   }
+
+  @Test
+  void testPutAllAndGetAll() throws Exception {
+    Map<Bytes, Bytes> map = new HashMap<>();
+    KeyValueStore store = new MapKeyValueStore(map);
+    Map<Bytes, Bytes> entries = new HashMap<>();
+    entries.put(Bytes.of(1), Bytes.of(10));
+    entries.put(Bytes.of(2), Bytes.of(20));
+    store.putAllAsync(entries).join();
+    assertEquals(entries, map);
+
+    Map<Bytes, Bytes> values = store.getAllAsync(Arrays.asList(Bytes.of(1), Bytes.of(2), Bytes.of(3))).get();
+    assertEquals(entries, values);
+  }
+
+  @Test
+  void testBatchCommit() throws Exception {
+    Map<Bytes, Bytes> map = new HashMap<>();
+    KeyValueStore store = new MapKeyValueStore(map);
+    KeyValueBatch batch = store.batch();
+    batch.put(Bytes.of(1), Bytes.of(10));
+    batch.put(Bytes.of(2), Bytes.of(20));
+    assertEquals(2, batch.size());
+    assertTrue(map.isEmpty());
+    batch.commitAsync().join();
+    assertEquals(0, batch.size());
+    assertEquals(Bytes.of(20), map.get(Bytes.of(2)));
+  }
 }
@@ -18,7 +18,9 @@ package net.consensys.cava.kv
 import com.google.common.io.MoreFiles
 import com.google.common.io.RecursiveDeleteOption
 import com.winterbe.expekt.should
+import kotlinx.coroutines.experimental.channels.toList
 import kotlinx.coroutines.experimental.runBlocking
+import kotlinx.coroutines.experimental.withContext
 import net.consensys.cava.bytes.Bytes
 import net.consensys.cava.kv.Vars.foo
 import net.consensys.cava.kv.Vars.foobar
@@ -27,7 +29,13 @@ import org.iq80.leveldb.Options
 import org.jetbrains.spek.api.Spek
 import org.jetbrains.spek.api.dsl.describe
 import org.jetbrains.spek.api.dsl.it
+import org.junit.jupiter.api.assertThrows
 import java.nio.file.Files
+import java.util.Comparator
+import java.util.TreeMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.coroutines.experimental.EmptyCoroutineContext
 
 object Vars {
   val foo = Bytes.wrap("foo".toByteArray())!!
@@ -59,6 +67,49 @@ object KeyValueStoreSpec : Spek({
         kv.get(Bytes.wrap("foofoobar".toByteArray())).should.be.`null`
       }
     }
+
+    it("should allow to store and retrieve multiple values") {
+      runBlocking {
+        kv.putAll(mapOf(foo to foobar, foobar to foobar))
+        kv.getAll(listOf(foo, foobar, Bytes.of(1))).should.equal(mapOf(foo to foobar, foobar to foobar))
+      }
+    }
+
+    it("should only write batched values when committed") {
+      runBlocking {
+        val key = Bytes.wrap("batched".toByteArray())
+        val batch = kv.batch()
+        batch.put(key, foo)
+        kv.get(key).should.be.`null`
+        batch.commit()
+        kv.get(key).should.equal(foo)
+      }
+    }
+
+    it("should apply batched removals together with batched values") {
+      runBlocking {
+        val removed = Bytes.wrap("removed".toByteArray())
+        val added = Bytes.wrap("added".toByteArray())
+        kv.put(removed, foo)
+        val batch = kv.batch()
+        batch.put(added, foo)
+        batch.remove(removed)
+        batch.size().should.equal(2)
+        kv.get(removed).should.equal(foo)
+        batch.commit()
+        kv.get(removed).should.be.`null`
+        kv.get(added).should.equal(foo)
+        batch.size().should.equal(0)
+      }
+    }
+
+    it("should allow to remove values") {
+      runBlocking {
+        kv.put(foo, foo)
+        kv.remove(foo)
+        kv.get(foo).should.be.`null`
+      }
+    }
   }
 })
 
@@ -91,5 +142,157 @@ object LevelDBKeyValueStoreSpec : Spek({
         kv.get(Bytes.wrap("foofoobar".toByteArray())).should.be.`null`
       }
     }
+
+    it("should allow to store and retrieve multiple values") {
+      runBlocking {
+        kv.putAll(mapOf(foo to foobar, foobar to foobar))
+        kv.getAll(listOf(foo, foobar, Bytes.of(1))).should.equal(mapOf(foo to foobar, foobar to foobar))
+      }
+    }
+
+    it("should only write batched values when committed") {
+      runBlocking {
+        val key = Bytes.wrap("batched".toByteArray())
+        val batch = kv.batch()
+        batch.put(key, foo)
+        kv.get(key).should.be.`null`
+        batch.commit()
+        kv.get(key).should.equal(foo)
+      }
+    }
+
+    it("should apply batched removals together with batched values") {
+      runBlocking {
+        val removed = Bytes.wrap("removed".toByteArray())
+        val added = Bytes.wrap("added".toByteArray())
+        kv.put(removed, foo)
+        val batch = kv.batch()
+        batch.put(added, foo)
+        batch.remove(removed)
+        batch.size().should.equal(2)
+        kv.get(removed).should.equal(foo)
+        batch.commit()
+        kv.get(removed).should.be.`null`
+        kv.get(added).should.equal(foo)
+        batch.size().should.equal(0)
+      }
+    }
+
+    it("should allow to remove values") {
+      runBlocking {
+        kv.put(foo, foo)
+        kv.remove(foo)
+        kv.get(foo).should.be.`null`
+      }
+    }
+
+    it("should iterate over ranges of keys in order") {
+      runBlocking {
+        kv.putAll(mapOf(Bytes.of(2, 1) to foo, Bytes.of(2, 2) to foo, Bytes.of(2, 0xFF) to foo, Bytes.of(3) to foo))
+        kv.entries(Bytes.of(2, 2), Bytes.of(3)).toList().map { it.first }
+          .should.equal(listOf(Bytes.of(2, 2), Bytes.of(2, 0xFF)))
+        kv.entriesWithPrefix(Bytes.of(2)).toList().map { it.first }
+          .should.equal(listOf(Bytes.of(2, 1), Bytes.of(2, 2), Bytes.of(2, 0xFF)))
+      }
+    }
+  }
+})
+
+object BlockingIODispatcherSpec : Spek({
+  val dispatcher = BlockingIODispatcher(2, "test-io")
+  afterGroup {
+    dispatcher.close()
+  }
+  describe("a blocking I/O dispatcher") {
+
+    it("should execute tasks on its own threads") {
+      runBlocking {
+        val threadName = withContext(dispatcher) { Thread.currentThread().name }
+        threadName.should.startWith("test-io-")
+      }
+    }
+
+    it("should have an empty queue when idle") {
+      dispatcher.queueDepth().should.equal(0)
+    }
+
+    it("should record queue depth, completed tasks and latencies under load") {
+      val loaded = BlockingIODispatcher(2, "test-io-loaded")
+      try {
+        val release = CountDownLatch(1)
+        val started = CountDownLatch(2)
+        repeat(6) {
+          loaded.dispatch(EmptyCoroutineContext, Runnable {
+            started.countDown()
+            release.await()
+          })
+        }
+        started.await(5, TimeUnit.SECONDS).should.be.`true`
+        // both threads are blocked, so the remaining tasks must be waiting in the queue
+        loaded.activeCount().should.equal(2)
+        loaded.queueDepth().should.equal(4)
+        loaded.completedTaskCount().should.equal(0L)
+
+        Thread.sleep(20)
+        release.countDown()
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5)
+        while (loaded.completedTaskCount() < 6 && System.nanoTime() < deadline) {
+          Thread.sleep(1)
+        }
+
+        loaded.completedTaskCount().should.equal(6L)
+        loaded.queueDepth().should.equal(0)
+        loaded.averageQueueLatency(TimeUnit.NANOSECONDS).should.be.above(0L)
+        loaded.averageExecutionLatency(TimeUnit.NANOSECONDS).should.be.above(0L)
+      } finally {
+        loaded.close()
+      }
+    }
+  }
+})
+
+object SortedMapKeyValueStoreSpec : Spek({
+  val kv = SortedMapKeyValueStore()
+
+  describe("a sorted map-backed key value store") {
+
+    it("should allow to store and retrieve values") {
+      runBlocking {
+        kv.put(foobar, foo)
+        kv.get(foobar).should.equal(foo)
+      }
+    }
+
+    it("should accept maps using the natural ordering of keys") {
+      SortedMapKeyValueStore(TreeMap(SortedMapKeyValueStore.KEY_COMPARATOR))
+      SortedMapKeyValueStore(TreeMap(Comparator.naturalOrder<Bytes>()))
+    }
+
+    it("should reject maps using another ordering of keys") {
+      assertThrows<IllegalArgumentException> { SortedMapKeyValueStore(TreeMap(Comparator.reverseOrder<Bytes>())) }
+    }
+
+    it("should allow to remove values") {
+      runBlocking {
+        kv.remove(foobar)
+        kv.get(foobar).should.be.`null`
+      }
+    }
+
+    it("should iterate over ranges of keys in unsigned order") {
+      runBlocking {
+        kv.putAll(mapOf(
+          Bytes.of(0x80) to foo,
+          Bytes.of(0x01) to foo,
+          Bytes.of(0x7F, 0xFF) to foo,
+          Bytes.of(0xFF) to foo
+        ))
+        kv.entries().toList().map { it.first }
+          .should.equal(listOf(Bytes.of(0x01), Bytes.of(0x7F, 0xFF), Bytes.of(0x80), Bytes.of(0xFF)))
+        kv.entries(Bytes.of(0x7F), Bytes.of(0xFF)).toList().map { it.first }
+          .should.equal(listOf(Bytes.of(0x7F, 0xFF), Bytes.of(0x80)))
+        kv.entriesWithPrefix(Bytes.of(0xFF)).toList().map { it.first }.should.equal(listOf(Bytes.of(0xFF)))
+      }
+    }
   }
 })
@@ -57,15 +57,17 @@ internal class BranchNode<V>(
     if (prevEncoded != null) {
       return prevEncoded
     }
-    val encoded = RLP.encodeList { out ->
-      for (i in 0 until RADIX) {
-        out.writeRLP(children[i].rlpRef())
-      }
-      if (value != null) {
-        out.writeValue(valueSerializer(value))
-      } else {
-        out.writeValue(Bytes.EMPTY)
+    val childRefs = Array(RADIX) { i -> children[i].rlpRef() }
+    val serializedValue = if (value != null) valueSerializer(value) else Bytes.EMPTY
+    var payloadLength = RLP.encodedValueLength(serializedValue)
+    for (childRef in childRefs) {
+      payloadLength += childRef.size()
+    }
+    val encoded = RLP.encodeList(payloadLength) { out ->
+      for (childRef in childRefs) {
+        out.writeRLP(childRef)
       }
+      out.writeValue(serializedValue)
     }
     rlp = WeakReference(encoded)
     return encoded
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.trie.experimental
+
+import kotlinx.coroutines.experimental.CommonPool
+import kotlinx.coroutines.experimental.async
+import net.consensys.cava.bytes.Bytes
+import net.consensys.cava.bytes.Bytes32
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Collects the encoded form of all uncommitted nodes, replacing each of them with a [StoredNode].
+ *
+ * Nodes that are already [StoredNode]s have been persisted previously and are not visited.
+ *
+ * The encoded nodes to persist are collected in [updates], keyed by their hash. The children of branch nodes that are
+ * shallower than `parallelDepth` are committed concurrently.
+ */
+internal class CommitVisitor<V> private constructor(
+  private val nodeFactory: StoredNodeFactory<V>,
+  private val parallelDepth: Int,
+  private val depth: Int,
+  val updates: MutableMap<Bytes32, Bytes>
+) : NodeVisitor<V> {
+
+  constructor(nodeFactory: StoredNodeFactory<V>, parallelDepth: Int) :
+    this(nodeFactory, parallelDepth, 0, ConcurrentHashMap())
+
+  private val nullNode: NullNode<V> = NullNode.instance()
+
+  suspend fun commit(node: Node<V>): Node<V> = if (node is StoredNode<*>) node else node.accept(this, Bytes.EMPTY)
+
+  override suspend fun visit(extensionNode: ExtensionNode<V>, path: Bytes): Node<V> {
+    val child = extensionNode.child()
+    val committedChild = commit(child)
+    if (committedChild === child) {
+      return maybePersist(extensionNode)
+    }
+    return maybePersist(nodeFactory.createExtension(extensionNode.path(), committedChild))
+  }
+
+  override suspend fun visit(branchNode: BranchNode<V>, path: Bytes): Node<V> {
+    val committedChildren = commitChildren(branchNode)
+    var changed = false
+    for (i in 0 until BranchNode.RADIX) {
+      if (committedChildren[i] !== branchNode.child(i.toByte())) {
+        changed = true
+      }
+    }
+    if (!changed) {
+      return maybePersist(branchNode)
+    }
+    return maybePersist(nodeFactory.createBranch(committedChildren, branchNode.value()))
+  }
+
+  private suspend fun commitChildren(branchNode: BranchNode<V>): List<Node<V>> {
+    if (depth >= parallelDepth) {
+      return (0 until BranchNode.RADIX).map { commit(branchNode.child(it.toByte())) }
+    }
+    val childVisitor = CommitVisitor(nodeFactory, parallelDepth, depth + 1, updates)
+    val deferredChildren = (0 until BranchNode.RADIX).map {
+      val child = branchNode.child(it.toByte())
+      if (needsCommit(child)) async(CommonPool) { childVisitor.commit(child) } else null
+    }
+    return deferredChildren.mapIndexed { i, deferred -> deferred?.await() ?: commit(branchNode.child(i.toByte())) }
+  }
+
+  // null and already stored nodes are committed without any work, so are not worth dispatching
+  private fun needsCommit(node: Node<V>): Boolean = node !is NullNode<*> && node !is StoredNode<*>
+
+  override suspend fun visit(leafNode: LeafNode<V>, path: Bytes): Node<V> = maybePersist(leafNode)
+
+  override suspend fun visit(nullNode: NullNode<V>, path: Bytes): Node<V> = this.nullNode
+
+  /**
+   * Persist a node regardless of its encoded size, as is required for the root of the trie.
+   */
+  fun persist(node: Node<V>): Node<V> {
+    if (node is StoredNode<*>) {
+      return node
+    }
+    updates[node.hash()] = node.rlp()
+    return StoredNode(nodeFactory, node)
+  }
+
+  private fun maybePersist(node: Node<V>): Node<V> {
+    val nodeRLP = node.rlp()
+    if (nodeRLP.size() < 32) {
+      // small nodes are inlined into their parent's encoding
+      return node
+    }
+    updates[node.hash()] = nodeRLP
+    return StoredNode(nodeFactory, node)
+  }
+}
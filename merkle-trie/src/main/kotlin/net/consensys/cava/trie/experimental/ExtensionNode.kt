@@ -49,9 +49,11 @@ internal class ExtensionNode<V>(
     if (prevEncoded != null) {
       return prevEncoded
     }
-    val encoded = RLP.encodeList { writer ->
-      writer.writeValue(CompactEncoding.encode(path))
-      writer.writeRLP(child.rlpRef())
+    val encodedPath = CompactEncoding.encode(path)
+    val childRef = child.rlpRef()
+    val encoded = RLP.encodeList(RLP.encodedValueLength(encodedPath) + childRef.size()) { writer ->
+      writer.writeValue(encodedPath)
+      writer.writeRLP(childRef)
     }
     rlp = WeakReference(encoded)
     return encoded
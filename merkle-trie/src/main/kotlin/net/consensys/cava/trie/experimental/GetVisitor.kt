@@ -18,7 +18,7 @@ package net.consensys.cava.trie.experimental
 import net.consensys.cava.bytes.Bytes
 import net.consensys.cava.trie.CompactEncoding
 
-internal class GetVisitor<V> : NodeVisitor<V> {
+internal open class GetVisitor<V> : NodeVisitor<V> {
 
   override suspend fun visit(extensionNode: ExtensionNode<V>, path: Bytes): Node<V> {
     val extensionPath = extensionNode.path()
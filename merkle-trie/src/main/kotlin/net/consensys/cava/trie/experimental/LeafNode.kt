@@ -44,9 +44,12 @@ internal class LeafNode<V>(
       return prevEncoded
     }
 
-    val encoded = RLP.encodeList { writer ->
-      writer.writeValue(CompactEncoding.encode(path))
-      writer.writeValue(valueSerializer(value))
+    val encodedPath = CompactEncoding.encode(path)
+    val serializedValue = valueSerializer(value)
+    val payloadLength = RLP.encodedValueLength(encodedPath) + RLP.encodedValueLength(serializedValue)
+    val encoded = RLP.encodeList(payloadLength) { writer ->
+      writer.writeValue(encodedPath)
+      writer.writeValue(serializedValue)
     }
     rlp = WeakReference(encoded)
     return encoded
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.trie.experimental
+
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
+import net.consensys.cava.bytes.Bytes
+import net.consensys.cava.bytes.Bytes32
+
+/**
+ * A cache of encoded trie nodes, for use by a [StoredMerklePatriciaTrie].
+ *
+ * The cache is consulted before retrieving nodes from [MerkleStorage], and is updated whenever nodes are stored. As
+ * nodes are cached in their encoded form, a single cache may be shared between tries storing different value types.
+ */
+interface MerkleNodeCache {
+
+  /**
+   * Get the encoded node with the given hash.
+   *
+   * @param hash The hash of the node.
+   * @return The encoded node, or null if it is not in the cache.
+   */
+  fun get(hash: Bytes32): Bytes?
+
+  /**
+   * Add an encoded node to the cache.
+   *
+   * @param hash The hash of the node.
+   * @param rlp The encoded node.
+   */
+  fun put(hash: Bytes32, rlp: Bytes)
+
+  /**
+   * Remove all nodes from the cache.
+   */
+  fun clear()
+}
+
+/**
+ * A [MerkleNodeCache] that evicts the least recently used nodes once the total size of the cached nodes exceeds a
+ * bound.
+ *
+ * @param maximumBytes The maximum total size of the cached nodes, including their hashes.
+ * @constructor Creates an empty cache.
+ */
+class BoundedMerkleNodeCache(maximumBytes: Long) : MerkleNodeCache {
+
+  private val cache: Cache<Bytes32, Bytes> = CacheBuilder.newBuilder()
+    .maximumWeight(maximumBytes)
+    .weigher<Bytes32, Bytes> { _, rlp -> Bytes32.SIZE + rlp.size() }
+    .recordStats()
+    .build()
+
+  override fun get(hash: Bytes32): Bytes? = cache.getIfPresent(hash)
+
+  override fun put(hash: Bytes32, rlp: Bytes) = cache.put(hash, rlp)
+
+  override fun clear() = cache.invalidateAll()
+
+  /**
+   * @return The number of nodes in the cache.
+   */
+  fun size(): Long = cache.size()
+
+  /**
+   * @return The number of lookups that found a node in the cache.
+   */
+  fun hitCount(): Long = cache.stats().hitCount()
+
+  /**
+   * @return The number of lookups that did not find a node in the cache.
+   */
+  fun missCount(): Long = cache.stats().missCount()
+
+  /**
+   * @return The number of nodes that have been evicted from the cache.
+   */
+  fun evictionCount(): Long = cache.stats().evictionCount()
+}
@@ -15,8 +15,12 @@
  */
 package net.consensys.cava.trie.experimental
 
+import kotlinx.coroutines.experimental.channels.ReceiveChannel
+import kotlinx.coroutines.experimental.channels.produce
 import net.consensys.cava.bytes.Bytes
 import net.consensys.cava.bytes.Bytes32
+import net.consensys.cava.concurrent.AsyncCompletion
+import net.consensys.cava.concurrent.coroutines.experimental.asyncCompletion
 import net.consensys.cava.trie.CompactEncoding.bytesToPath
 import java.util.function.Function
 
@@ -63,6 +67,12 @@ class MerklePatriciaTrie<V>(valueSerializer: (V) -> Bytes) : MerkleTrie<Bytes, V
 
   override suspend fun get(key: Bytes): V? = root.accept(getVisitor, bytesToPath(key)).value()
 
+  override suspend fun getProof(key: Bytes): List<Bytes> {
+    val visitor = ProofVisitor<V>()
+    root.accept(visitor, bytesToPath(key))
+    return visitor.proof
+  }
+
   override suspend fun put(key: Bytes, value: V?) {
     if (value == null) {
       return remove(key)
@@ -70,12 +80,114 @@ class MerklePatriciaTrie<V>(valueSerializer: (V) -> Bytes) : MerkleTrie<Bytes, V
     this.root = root.accept(PutVisitor(nodeFactory, value), bytesToPath(key))
   }
 
+  /**
+   * Populates an empty trie from entries that are sorted by key.
+   *
+   * Entries must be sorted by the Radix-16 paths of their keys, which is unsigned lexicographic order of the keys
+   * except that a key sorts after all the keys that it is a prefix of. Nodes are built bottom-up in a single pass
+   * without creating intermediate nodes.
+   *
+   * @param entries The entries to put into the trie.
+   * @throws IllegalStateException If the trie is not empty.
+   * @throws IllegalArgumentException If the entries are not sorted.
+   */
+  suspend fun putAllSorted(entries: Iterator<Pair<Bytes, V>>) {
+    check(root is NullNode<*>) { "Trie is not empty" }
+    this.root = buildSortedTrie(nodeFactory, entries)
+  }
+
+  /**
+   * Populates an empty trie from entries that are sorted by key.
+   *
+   * Entries must be sorted by the Radix-16 paths of their keys, which is unsigned lexicographic order of the keys
+   * except that a key sorts after all the keys that it is a prefix of. Nodes are built bottom-up in a single pass
+   * without creating intermediate nodes.
+   *
+   * @param entries The entries to put into the trie.
+   * @throws IllegalStateException If the trie is not empty.
+   * @throws IllegalArgumentException If the entries are not sorted.
+   * @return A completion that will complete when the entries have been put into the trie.
+   */
+  fun putAllSortedAsync(entries: Iterator<Pair<Bytes, V>>): AsyncCompletion = asyncCompletion { putAllSorted(entries) }
+
+  /**
+   * Updates the values that correspond to the specified keys, creating values that do not already exist.
+   *
+   * If the trie is empty, the entries are sorted and the trie is built bottom-up, as for [putAllSorted]. Otherwise,
+   * each entry is put individually.
+   *
+   * @param entries The entries to put into the trie.
+   */
+  suspend fun putAll(entries: Map<Bytes, V>) {
+    if (root is NullNode<*>) {
+      this.root = buildTrie(nodeFactory, entries)
+    } else {
+      for ((key, value) in entries) {
+        put(key, value)
+      }
+    }
+  }
+
+  /**
+   * Updates the values that correspond to the specified keys, creating values that do not already exist.
+   *
+   * If the trie is empty, the entries are sorted and the trie is built bottom-up, as for [putAllSorted]. Otherwise,
+   * each entry is put individually.
+   *
+   * @param entries The entries to put into the trie.
+   * @return A completion that will complete when the entries have been put into the trie.
+   */
+  fun putAllAsync(entries: Map<Bytes, V>): AsyncCompletion = asyncCompletion { putAll(entries) }
+
   override suspend fun remove(key: Bytes) {
     this.root = root.accept(removeVisitor, bytesToPath(key))
   }
 
+  /**
+   * Returns all the entries of the trie.
+   *
+   * Entries are produced in the order of the Radix-16 paths of their keys, so they may be passed directly to
+   * [putAllSorted]. The entries are those of the trie at the time this method is called.
+   *
+   * @return A channel producing the (key, value) pairs of the trie.
+   */
+  fun entries(): ReceiveChannel<Pair<Bytes, V>> {
+    val currentRoot = root
+    return produce {
+      TrieWalker<V> { key, _, value -> send(Pair(key, value!!)) }.walk(currentRoot)
+    }
+  }
+
+  /**
+   * Returns the differences between this trie and another trie.
+   *
+   * Subtrees that are identical in both tries are detected by their hashes and are skipped. Differences are produced
+   * in the order of the Radix-16 paths of their keys.
+   *
+   * @param other The trie to compare this trie against.
+   * @return A channel producing the keys whose values were added, removed or changed between this trie and the other
+   *   trie.
+   */
+  fun diff(other: MerklePatriciaTrie<V>): ReceiveChannel<TrieDiff<V>> {
+    val currentRoot = root
+    val otherRoot = other.root
+    return produce {
+      TrieWalker<V> { key, oldValue, newValue -> send(TrieDiff(key, oldValue, newValue)) }.diff(currentRoot, otherRoot)
+    }
+  }
+
   override fun rootHash(): Bytes32 = root.hash()
 
+  /**
+   * Returns the KECCAK256 hash of the root node of the trie, hashing the top-most subtrees of the trie in parallel.
+   *
+   * The subtrees are hashed using the common fork-join pool. This is beneficial after a large number of updates, when
+   * most nodes of the trie need to be rehashed.
+   *
+   * @return The KECCAK256 hash of the root node of the trie.
+   */
+  fun parallelRootHash(): Bytes32 = parallelHash(root)
+
   /**
    * @return A string representation of the object.
    */
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.trie.experimental
+
+import net.consensys.cava.bytes.Bytes
+import net.consensys.cava.bytes.Bytes32
+import net.consensys.cava.concurrent.AsyncResult
+import net.consensys.cava.concurrent.coroutines.experimental.asyncResult
+import net.consensys.cava.crypto.Hash.keccak256
+import net.consensys.cava.trie.CompactEncoding.bytesToPath
+import java.util.Optional
+
+/**
+ * Verification of Merkle proofs, as returned by [MerkleTrie.getProof].
+ */
+object MerkleProof {
+
+  /**
+   * Verifies a proof against a root hash, returning the proven value for the key.
+   *
+   * No storage is required: the nodes of the proof are decoded and followed from the root hash, and as each node is
+   * identified by its hash, any node that has been altered or omitted is detected.
+   *
+   * @param rootHash The root hash of the trie.
+   * @param key The key that the proof is for.
+   * @param proof The encoded nodes along the path to the key, as returned by [MerkleTrie.getProof].
+   * @return The serialized value for the key, or null if the proof shows that the trie contains no value for the key.
+   * @throws MerkleStorageException If the proof is missing a node that is required, or contains an invalid node.
+   */
+  @JvmStatic
+  suspend fun verify(rootHash: Bytes32, key: Bytes, proof: List<Bytes>): Bytes? {
+    if (rootHash == MerkleTrie.EMPTY_TRIE_ROOT_HASH) {
+      return null
+    }
+    val nodes = HashMap<Bytes32, Bytes>()
+    for (rlp in proof) {
+      nodes[keccak256(rlp)] = rlp
+    }
+    val nodeFactory = StoredNodeFactory.readOnly({ hash -> nodes[hash] }, ::bytesIdentity, ::bytesIdentity)
+    return StoredNode(nodeFactory, rootHash).accept(GetVisitor(), bytesToPath(key)).value()
+  }
+
+  /**
+   * Verifies a proof against a root hash, returning the proven value for the key.
+   *
+   * No storage is required: the nodes of the proof are decoded and followed from the root hash, and as each node is
+   * identified by its hash, any node that has been altered or omitted is detected.
+   *
+   * @param rootHash The root hash of the trie.
+   * @param key The key that the proof is for.
+   * @param proof The encoded nodes along the path to the key, as returned by [MerkleTrie.getProof].
+   * @return An [AsyncResult] that will complete with the serialized value for the key, or an empty optional if the
+   *   proof shows that the trie contains no value for the key. If the proof is missing a node that is required or
+   *   contains an invalid node, it will complete exceptionally with a [MerkleStorageException].
+   */
+  @JvmStatic
+  fun verifyAsync(rootHash: Bytes32, key: Bytes, proof: List<Bytes>): AsyncResult<Optional<Bytes>> =
+    asyncResult { Optional.ofNullable(verify(rootHash, key, proof)) }
+}
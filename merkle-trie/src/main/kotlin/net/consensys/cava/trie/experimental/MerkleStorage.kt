@@ -45,6 +45,20 @@ interface MerkleStorage {
    * @param content The content to store.
    */
   suspend fun put(hash: Bytes32, content: Bytes)
+
+  /**
+   * Store multiple items of content, each under its given hash.
+   *
+   * The default implementation calls [put] for each entry. Implementations backed by a store that supports batched
+   * writes should override this method to write all entries at once.
+   *
+   * @param contents A map of hashes to the content to store under each hash.
+   */
+  suspend fun putAll(contents: Map<Bytes32, Bytes>) {
+    for ((hash, content) in contents) {
+      put(hash, content)
+    }
+  }
 }
 
 /**
@@ -77,4 +91,18 @@ abstract class AsyncMerkleStorage : MerkleStorage {
    * @return An [AsyncCompletion] that will complete when the content is stored, or with an exception.
    */
   abstract fun putAsync(hash: Bytes32, content: Bytes): AsyncCompletion
+
+  override suspend fun putAll(contents: Map<Bytes32, Bytes>) = putAllAsync(contents).await()
+
+  /**
+   * Store multiple items of content, each under its given hash.
+   *
+   * The default implementation calls [putAsync] for each entry. Implementations backed by a store that supports
+   * batched writes should override this method to write all entries at once.
+   *
+   * @param contents A map of hashes to the content to store under each hash.
+   * @return An [AsyncCompletion] that will complete when all the content is stored, or with an exception.
+   */
+  open fun putAllAsync(contents: Map<Bytes32, Bytes>): AsyncCompletion =
+    AsyncCompletion.allOf(contents.map { (hash, content) -> putAsync(hash, content) })
 }
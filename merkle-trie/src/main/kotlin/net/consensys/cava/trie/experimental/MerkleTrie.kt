@@ -55,6 +55,29 @@ interface MerkleTrie<in K, V> {
    */
   fun getAsync(key: K): AsyncResult<Optional<V>> = asyncResult { Optional.ofNullable(get(key)) }
 
+  /**
+   * Returns a proof of the value that corresponds to the specified key, or of its absence.
+   *
+   * The proof consists of the encoded nodes along the path to the key, starting from the root node, and can be checked
+   * against the root hash of the trie using [MerkleProof.verify].
+   *
+   * @param key The key to return the proof for.
+   * @return The encoded nodes along the path to the key.
+   * @throws MerkleStorageException If there is an error while accessing or decoding data from storage.
+   */
+  suspend fun getProof(key: K): List<Bytes>
+
+  /**
+   * Returns a proof of the value that corresponds to the specified key, or of its absence.
+   *
+   * The proof consists of the encoded nodes along the path to the key, starting from the root node, and can be checked
+   * against the root hash of the trie using [MerkleProof.verify].
+   *
+   * @param key The key to return the proof for.
+   * @return An [AsyncResult] that will complete with the encoded nodes along the path to the key.
+   */
+  fun getProofAsync(key: K): AsyncResult<List<Bytes>> = asyncResult { getProof(key) }
+
   /**
    * Updates the value that corresponds to the specified key, creating the value if one does not already exist.
    *
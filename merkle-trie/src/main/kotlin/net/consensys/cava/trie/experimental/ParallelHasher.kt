@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.trie.experimental
+
+import net.consensys.cava.bytes.Bytes
+import net.consensys.cava.bytes.Bytes32
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ForkJoinTask
+import java.util.concurrent.RecursiveAction
+
+/**
+ * The depth of the trie to which branch and extension nodes are hashed in parallel.
+ *
+ * Below this depth, each subtree is hashed sequentially by the task that owns it.
+ */
+internal const val PARALLEL_HASH_DEPTH = 2
+
+/**
+ * Computes the hash of a trie, hashing the subtrees of the top-most branch nodes in parallel using the common
+ * fork-join pool.
+ */
+internal fun <V> parallelHash(root: Node<V>): Bytes32 {
+  val task = HashTask(root, 0)
+  ForkJoinPool.commonPool().invoke(task)
+  return root.hash()
+}
+
+private class HashTask<V>(private val node: Node<V>, private val depth: Int) : RecursiveAction() {
+
+  // holds the encoding strongly, so that it is not released before the parent node has been encoded
+  private var rlp: Bytes? = null
+  // kept in a field rather than a local, so that the encodings held by the subtasks stay reachable from the root
+  // task until the whole trie has been hashed
+  private var subtasks: List<HashTask<V>> = emptyList()
+
+  override fun compute() {
+    if (depth < PARALLEL_HASH_DEPTH) {
+      subtasks = children(node).map { HashTask(it, depth + 1) }
+      if (!subtasks.isEmpty()) {
+        ForkJoinTask.invokeAll(subtasks)
+      }
+    }
+    rlp = node.rlp()
+    node.rlpRef()
+  }
+
+  private fun children(node: Node<V>): List<Node<V>> {
+    return when (node) {
+      is BranchNode<V> -> (0 until BranchNode.RADIX).map { node.child(it.toByte()) }.filter(::isInMemoryInterior)
+      is ExtensionNode<V> -> listOf(node.child()).filter(::isInMemoryInterior)
+      else -> emptyList()
+    }
+  }
+}
+
+private fun isInMemoryInterior(node: Node<*>): Boolean = node is BranchNode<*> || node is ExtensionNode<*>
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.trie.experimental
+
+import net.consensys.cava.bytes.Bytes
+
+/**
+ * A [GetVisitor] that also collects the encoded form of the nodes along the path.
+ *
+ * The root node is always collected, while other nodes are only collected if they are referenced by hash, as smaller
+ * nodes are contained in the encoding of their parent.
+ */
+internal class ProofVisitor<V> : GetVisitor<V>() {
+
+  /**
+   * The encoded nodes along the path, starting from the root.
+   */
+  val proof: MutableList<Bytes> = ArrayList()
+
+  override suspend fun visit(extensionNode: ExtensionNode<V>, path: Bytes): Node<V> {
+    record(extensionNode)
+    return super.visit(extensionNode, path)
+  }
+
+  override suspend fun visit(branchNode: BranchNode<V>, path: Bytes): Node<V> {
+    record(branchNode)
+    return super.visit(branchNode, path)
+  }
+
+  override suspend fun visit(leafNode: LeafNode<V>, path: Bytes): Node<V> {
+    record(leafNode)
+    return super.visit(leafNode, path)
+  }
+
+  private fun record(node: Node<V>) {
+    val rlp = node.rlp()
+    if (proof.isEmpty() || rlp.size() >= 32) {
+      proof.add(rlp)
+    }
+  }
+}
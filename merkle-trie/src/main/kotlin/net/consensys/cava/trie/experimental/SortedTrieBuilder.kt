@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.trie.experimental
+
+import net.consensys.cava.bytes.Bytes
+import net.consensys.cava.trie.CompactEncoding
+import java.util.ArrayDeque
+
+/**
+ * Builds a trie bottom-up from entries that are added in path order.
+ *
+ * Each node of the resulting trie is created exactly once, as soon as no later entry can be added beneath it, so only
+ * the nodes along the path of the most recent entry are held by the builder.
+ */
+internal class SortedTrieBuilder<V>(private val nodeFactory: NodeFactory<V>) {
+
+  private class Frame<V>(val depth: Int, val path: Bytes) {
+    val children = arrayOfNulls<Node<V>>(BranchNode.RADIX)
+    var value: V? = null
+  }
+
+  private val nullNode: NullNode<V> = NullNode.instance()
+
+  // open branches along the path of the pending entry, ordered by increasing depth
+  private val frames = ArrayDeque<Frame<V>>()
+  private var pendingPath: Bytes? = null
+  private var pendingValue: V? = null
+  // the length of the common prefix of the pending entry and the entry before it
+  private var pendingPrefixLength = -1
+
+  /**
+   * Add an entry.
+   *
+   * @param path The path of the entry, which must sort after the path of the previously added entry.
+   * @param value The value of the entry.
+   * @throws IllegalArgumentException If the path does not sort after the previously added path.
+   */
+  suspend fun add(path: Bytes, value: V) {
+    val prevPath = pendingPath
+    if (prevPath == null) {
+      pendingPath = path
+      pendingValue = value
+      return
+    }
+
+    val commonPrefixLength = prevPath.commonPrefixLength(path)
+    if (commonPrefixLength == path.size() && commonPrefixLength == prevPath.size()) {
+      // same path, so replace the pending value
+      pendingValue = value
+      return
+    }
+    require(prevPath.get(commonPrefixLength) < path.get(commonPrefixLength)) { "Entries are not sorted by path" }
+
+    attachPending(Math.max(pendingPrefixLength, commonPrefixLength))
+    closeFrames(commonPrefixLength)
+
+    pendingPath = path
+    pendingValue = value
+    pendingPrefixLength = commonPrefixLength
+  }
+
+  /**
+   * Build the trie from all added entries.
+   *
+   * @return The root node of the trie.
+   */
+  suspend fun build(): Node<V> {
+    val lastPath = pendingPath ?: return nullNode
+    if (pendingPrefixLength < 0) {
+      return nodeFactory.createLeaf(lastPath, pendingValue!!)
+    }
+    attachPending(pendingPrefixLength)
+    return closeFrames(-1)!!
+  }
+
+  private suspend fun attachPending(depth: Int) {
+    val path = pendingPath!!
+    val top = frames.peekLast()
+    val frame = if (top == null || top.depth < depth) {
+      val newFrame = Frame<V>(depth, path)
+      frames.addLast(newFrame)
+      newFrame
+    } else {
+      top
+    }
+
+    val index = path.get(depth)
+    if (index == CompactEncoding.LEAF_TERMINATOR) {
+      frame.value = pendingValue
+    } else {
+      frame.children[index.toInt()] = nodeFactory.createLeaf(path.slice(depth + 1), pendingValue!!)
+    }
+  }
+
+  /**
+   * Closes all branches deeper than the given depth, attaching each to its parent.
+   *
+   * @return The root node, if all branches were closed.
+   */
+  private suspend fun closeFrames(depth: Int): Node<V>? {
+    while (!frames.isEmpty() && frames.peekLast().depth > depth) {
+      val frame = frames.removeLast()
+      val branch = nodeFactory.createBranch(frame.children.map { it ?: nullNode }, frame.value)
+
+      val parent = frames.peekLast()
+      val parentDepth = if (parent == null || parent.depth < depth) depth else parent.depth
+      val node = if (frame.depth > parentDepth + 1) {
+        nodeFactory.createExtension(frame.path.slice(parentDepth + 1, frame.depth - parentDepth - 1), branch)
+      } else {
+        branch
+      }
+
+      if (parentDepth < 0) {
+        return node
+      }
+      val parentFrame = if (parent == null || parent.depth < parentDepth) {
+        val newFrame = Frame<V>(parentDepth, frame.path)
+        frames.addLast(newFrame)
+        newFrame
+      } else {
+        parent
+      }
+      parentFrame.children[frame.path.get(parentDepth).toInt()] = node
+    }
+    return null
+  }
+}
+
+/**
+ * Builds a trie from entries that are sorted by the Radix-16 paths of their keys.
+ */
+internal suspend fun <V> buildSortedTrie(nodeFactory: NodeFactory<V>, entries: Iterator<Pair<Bytes, V>>): Node<V> {
+  val builder = SortedTrieBuilder(nodeFactory)
+  for ((key, value) in entries) {
+    builder.add(CompactEncoding.bytesToPath(key), value)
+  }
+  return builder.build()
+}
+
+/**
+ * Builds a trie from unsorted entries.
+ */
+internal suspend fun <V> buildTrie(nodeFactory: NodeFactory<V>, entries: Map<Bytes, V>): Node<V> {
+  val sorted = entries.map { (key, value) -> Pair(CompactEncoding.bytesToPath(key), value) }
+    .sortedBy { it.first }
+  val builder = SortedTrieBuilder(nodeFactory)
+  for ((path, value) in sorted) {
+    builder.add(path, value)
+  }
+  return builder.build()
+}
@@ -15,14 +15,24 @@
  */
 package net.consensys.cava.trie.experimental
 
+import kotlinx.coroutines.experimental.channels.ReceiveChannel
+import kotlinx.coroutines.experimental.channels.produce
 import net.consensys.cava.bytes.Bytes
 import net.consensys.cava.bytes.Bytes32
+import net.consensys.cava.concurrent.AsyncCompletion
+import net.consensys.cava.concurrent.AsyncResult
+import net.consensys.cava.concurrent.coroutines.experimental.asyncCompletion
+import net.consensys.cava.concurrent.coroutines.experimental.asyncResult
 import net.consensys.cava.trie.CompactEncoding.bytesToPath
 import java.util.function.Function
 
 /**
  * A [MerkleTrie] that persists trie nodes to a [MerkleStorage] key/value store.
  *
+ * By default, every node created while updating the trie is written to storage immediately. When `autoCommit` is
+ * disabled, updated nodes are instead kept in memory and only the nodes reachable from the root are hashed and written,
+ * in a single batch, by [commit].
+ *
  * @param <V> The type of values stored by this trie.
  */
 class StoredMerklePatriciaTrie<V> : MerkleTrie<Bytes, V> {
@@ -73,7 +83,7 @@ class StoredMerklePatriciaTrie<V> : MerkleTrie<Bytes, V> {
 
   private val getVisitor = GetVisitor<V>()
   private val removeVisitor = RemoveVisitor<V>()
-  private val storage: MerkleStorage
+  private val autoCommit: Boolean
   private val nodeFactory: StoredNodeFactory<V>
   private var root: Node<V>
 
@@ -131,9 +141,83 @@ class StoredMerklePatriciaTrie<V> : MerkleTrie<Bytes, V> {
     rootHash: Bytes32,
     valueSerializer: (V) -> Bytes,
     valueDeserializer: (Bytes) -> V
+  ) : this(storage, rootHash, valueSerializer, valueDeserializer, true)
+
+  /**
+   * Create a trie.
+   *
+   * @param storage The storage to use for persistence.
+   * @param rootHash The initial root has for the trie, which should be already present in `storage`.
+   * @param valueSerializer A function for serializing values to bytes.
+   * @param valueDeserializer A function for deserializing values from bytes.
+   * @param autoCommit If `false`, updated nodes are not persisted until [commit] is called.
+   */
+  constructor(
+    storage: MerkleStorage,
+    rootHash: Bytes32,
+    valueSerializer: Function<V, Bytes>,
+    valueDeserializer: Function<Bytes, V>,
+    autoCommit: Boolean
+  ) : this(storage, rootHash, valueSerializer::apply, valueDeserializer::apply, autoCommit)
+
+  /**
+   * Create a trie.
+   *
+   * @param storage The storage to use for persistence.
+   * @param rootHash The initial root has for the trie, which should be already present in `storage`.
+   * @param valueSerializer A function for serializing values to bytes.
+   * @param valueDeserializer A function for deserializing values from bytes.
+   * @param autoCommit If `false`, updated nodes are not persisted until [commit] is called.
+   */
+  constructor(
+    storage: MerkleStorage,
+    rootHash: Bytes32,
+    valueSerializer: (V) -> Bytes,
+    valueDeserializer: (Bytes) -> V,
+    autoCommit: Boolean
+  ) : this(storage, rootHash, valueSerializer, valueDeserializer, autoCommit, null)
+
+  /**
+   * Create a trie.
+   *
+   * @param storage The storage to use for persistence.
+   * @param rootHash The initial root has for the trie, which should be already present in `storage`.
+   * @param valueSerializer A function for serializing values to bytes.
+   * @param valueDeserializer A function for deserializing values from bytes.
+   * @param autoCommit If `false`, updated nodes are not persisted until [commit] is called.
+   * @param cache A cache of encoded nodes to consult before accessing `storage`, or null to rely on the garbage
+   *   collector to release cached nodes.
+   */
+  constructor(
+    storage: MerkleStorage,
+    rootHash: Bytes32,
+    valueSerializer: Function<V, Bytes>,
+    valueDeserializer: Function<Bytes, V>,
+    autoCommit: Boolean,
+    cache: MerkleNodeCache?
+  ) : this(storage, rootHash, valueSerializer::apply, valueDeserializer::apply, autoCommit, cache)
+
+  /**
+   * Create a trie.
+   *
+   * @param storage The storage to use for persistence.
+   * @param rootHash The initial root has for the trie, which should be already present in `storage`.
+   * @param valueSerializer A function for serializing values to bytes.
+   * @param valueDeserializer A function for deserializing values from bytes.
+   * @param autoCommit If `false`, updated nodes are not persisted until [commit] is called.
+   * @param cache A cache of encoded nodes to consult before accessing `storage`, or null to rely on the garbage
+   *   collector to release cached nodes.
+   */
+  constructor(
+    storage: MerkleStorage,
+    rootHash: Bytes32,
+    valueSerializer: (V) -> Bytes,
+    valueDeserializer: (Bytes) -> V,
+    autoCommit: Boolean,
+    cache: MerkleNodeCache?
   ) {
-    this.storage = storage
-    this.nodeFactory = StoredNodeFactory(storage, valueSerializer, valueDeserializer)
+    this.autoCommit = autoCommit
+    this.nodeFactory = StoredNodeFactory(storage, valueSerializer, valueDeserializer, autoCommit, cache)
 
     this.root = if (rootHash == MerkleTrie.EMPTY_TRIE_ROOT_HASH) {
       NullNode.instance()
@@ -144,6 +228,12 @@ class StoredMerklePatriciaTrie<V> : MerkleTrie<Bytes, V> {
 
   override suspend fun get(key: Bytes): V? = root.accept(getVisitor, bytesToPath(key)).value()
 
+  override suspend fun getProof(key: Bytes): List<Bytes> {
+    val visitor = ProofVisitor<V>()
+    root.accept(visitor, bytesToPath(key))
+    return visitor.proof
+  }
+
   override suspend fun put(key: Bytes, value: V?) {
     if (value == null) {
       return remove(key)
@@ -151,15 +241,177 @@ class StoredMerklePatriciaTrie<V> : MerkleTrie<Bytes, V> {
     updateRoot(root.accept(PutVisitor(nodeFactory, value), bytesToPath(key)))
   }
 
+  /**
+   * Populates an empty trie from entries that are sorted by key.
+   *
+   * Entries must be sorted by the Radix-16 paths of their keys, which is unsigned lexicographic order of the keys
+   * except that a key sorts after all the keys that it is a prefix of. Nodes are built bottom-up in a single pass
+   * without creating intermediate nodes, and each node is stored as soon as it is complete.
+   *
+   * @param entries The entries to put into the trie.
+   * @throws IllegalStateException If the trie is not empty.
+   * @throws IllegalArgumentException If the entries are not sorted.
+   * @throws MerkleStorageException If there is an error while writing to storage.
+   */
+  suspend fun putAllSorted(entries: Iterator<Pair<Bytes, V>>) {
+    check(isEmpty()) { "Trie is not empty" }
+    updateRoot(buildSortedTrie(nodeFactory, entries))
+  }
+
+  /**
+   * Populates an empty trie from entries that are sorted by key.
+   *
+   * Entries must be sorted by the Radix-16 paths of their keys, which is unsigned lexicographic order of the keys
+   * except that a key sorts after all the keys that it is a prefix of. Nodes are built bottom-up in a single pass
+   * without creating intermediate nodes, and each node is stored as soon as it is complete.
+   *
+   * @param entries The entries to put into the trie.
+   * @throws IllegalStateException If the trie is not empty.
+   * @throws IllegalArgumentException If the entries are not sorted.
+   * @return A completion that will complete when the entries have been put into the trie.
+   */
+  fun putAllSortedAsync(entries: Iterator<Pair<Bytes, V>>): AsyncCompletion = asyncCompletion { putAllSorted(entries) }
+
+  /**
+   * Updates the values that correspond to the specified keys, creating values that do not already exist.
+   *
+   * If the trie is empty, the entries are sorted and the trie is built bottom-up, as for [putAllSorted]. Otherwise,
+   * each entry is put individually.
+   *
+   * @param entries The entries to put into the trie.
+   * @throws MerkleStorageException If there is an error while writing to storage.
+   */
+  suspend fun putAll(entries: Map<Bytes, V>) {
+    if (isEmpty()) {
+      updateRoot(buildTrie(nodeFactory, entries))
+    } else {
+      for ((key, value) in entries) {
+        put(key, value)
+      }
+    }
+  }
+
+  /**
+   * Updates the values that correspond to the specified keys, creating values that do not already exist.
+   *
+   * If the trie is empty, the entries are sorted and the trie is built bottom-up, as for [putAllSorted]. Otherwise,
+   * each entry is put individually.
+   *
+   * @param entries The entries to put into the trie.
+   * @return A completion that will complete when the entries have been put into the trie.
+   */
+  fun putAllAsync(entries: Map<Bytes, V>): AsyncCompletion = asyncCompletion { putAll(entries) }
+
   override suspend fun remove(key: Bytes) = updateRoot(root.accept(removeVisitor, bytesToPath(key)))
 
+  /**
+   * Returns all the entries of the trie.
+   *
+   * Entries are produced in the order of the Radix-16 paths of their keys, so they may be passed directly to
+   * [putAllSorted]. Nodes are loaded from storage as the channel is consumed.
+   *
+   * @return A channel producing the (key, value) pairs of the trie.
+   */
+  fun entries(): ReceiveChannel<Pair<Bytes, V>> {
+    val currentRoot = root
+    return produce {
+      TrieWalker<V> { key, _, value -> send(Pair(key, value!!)) }.walk(currentRoot)
+    }
+  }
+
+  /**
+   * Returns the differences between this trie and the trie with the given root hash in the same storage.
+   *
+   * Subtrees that are identical in both tries are detected by their hashes and are not loaded, so the cost of the
+   * walk is proportional to the size of the changes rather than the size of the tries. Differences are produced in
+   * the order of the Radix-16 paths of their keys.
+   *
+   * @param toRootHash The root hash of the trie to compare this trie against.
+   * @return A channel producing the keys whose values were added, removed or changed between this trie and the
+   *   trie with the given root hash.
+   */
+  fun diff(toRootHash: Bytes32): ReceiveChannel<TrieDiff<V>> {
+    val currentRoot = root
+    val toRoot: Node<V> = if (toRootHash == MerkleTrie.EMPTY_TRIE_ROOT_HASH) {
+      NullNode.instance()
+    } else {
+      StoredNode(nodeFactory, toRootHash)
+    }
+    return produce {
+      TrieWalker<V> { key, oldValue, newValue -> send(TrieDiff(key, oldValue, newValue)) }.diff(currentRoot, toRoot)
+    }
+  }
+
+  /**
+   * Returns the KECCAK256 hash of the root node of the trie.
+   *
+   * If `autoCommit` is disabled, this includes any uncommitted updates, and hashes the updated nodes without
+   * persisting them.
+   *
+   * @return The KECCAK256 hash of the root node of the trie.
+   */
   override fun rootHash(): Bytes32 = root.hash()
 
+  /**
+   * Persists all uncommitted nodes to storage.
+   *
+   * Only nodes that are reachable from the current root are encoded and hashed, and they are written using a single
+   * call to [MerkleStorage.putAll]. If `autoCommit` is enabled, all nodes have already been persisted and this method
+   * has no effect.
+   *
+   * @return The KECCAK256 hash of the root node of the trie.
+   * @throws MerkleStorageException If there is an error while writing to storage.
+   */
+  suspend fun commit(): Bytes32 = commit(0)
+
+  /**
+   * Persists all uncommitted nodes to storage, encoding and hashing the top-most subtrees of the trie in parallel.
+   *
+   * This is otherwise identical to [commit], and is beneficial when a large number of nodes are uncommitted.
+   *
+   * @return The KECCAK256 hash of the root node of the trie.
+   * @throws MerkleStorageException If there is an error while writing to storage.
+   */
+  suspend fun parallelCommit(): Bytes32 = commit(PARALLEL_HASH_DEPTH)
+
+  private suspend fun commit(parallelDepth: Int): Bytes32 {
+    val currentRoot = root
+    if (currentRoot is StoredNode<*>) {
+      return currentRoot.hash()
+    }
+    val visitor = CommitVisitor(nodeFactory, parallelDepth)
+    val committedRoot = visitor.persist(visitor.commit(currentRoot))
+    nodeFactory.storeAll(visitor.updates)
+    this.root = committedRoot
+    return committedRoot.hash()
+  }
+
+  /**
+   * Persists all uncommitted nodes to storage.
+   *
+   * Only nodes that are reachable from the current root are encoded and hashed, and they are written using a single
+   * call to [MerkleStorage.putAll]. If `autoCommit` is enabled, all nodes have already been persisted and this method
+   * has no effect.
+   *
+   * @return An [AsyncResult] that will complete with the KECCAK256 hash of the root node of the trie.
+   */
+  fun commitAsync(): AsyncResult<Bytes32> = asyncResult { commit() }
+
+  /**
+   * Persists all uncommitted nodes to storage, encoding and hashing the top-most subtrees of the trie in parallel.
+   *
+   * This is otherwise identical to [commitAsync], and is beneficial when a large number of nodes are uncommitted.
+   *
+   * @return An [AsyncResult] that will complete with the KECCAK256 hash of the root node of the trie.
+   */
+  fun parallelCommitAsync(): AsyncResult<Bytes32> = asyncResult { parallelCommit() }
+
   /**
    * Forces any cached trie nodes to be released, so they can be garbage collected.
    *
    * Note: nodes are already stored using [java.lang.ref.SoftReference]'s, so they will be released automatically
-   * based on memory demands.
+   * based on memory demands. Nodes that have not yet been committed are never released. This does not clear the
+   * [MerkleNodeCache], which may be shared with other tries.
    */
   fun clearCache() {
     val currentRoot = root
@@ -168,11 +420,17 @@ class StoredMerklePatriciaTrie<V> : MerkleTrie<Bytes, V> {
     }
   }
 
+  private fun isEmpty(): Boolean {
+    val currentRoot = root
+    return currentRoot is NullNode<*> ||
+      (currentRoot is StoredNode<*> && currentRoot.hash() == MerkleTrie.EMPTY_TRIE_ROOT_HASH)
+  }
+
   private suspend fun updateRoot(newRoot: Node<V>) {
-    this.root = if (newRoot is StoredNode<*>) {
+    this.root = if (!autoCommit || newRoot is StoredNode<*>) {
       newRoot
     } else {
-      storage.put(newRoot.hash(), newRoot.rlp())
+      nodeFactory.store(newRoot.hash(), newRoot.rlp())
       StoredNode(nodeFactory, newRoot)
     }
   }
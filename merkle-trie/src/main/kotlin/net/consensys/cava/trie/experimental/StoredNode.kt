@@ -70,7 +70,7 @@ internal class StoredNode<V> : Node<V> {
 
   override suspend fun replacePath(path: Bytes): Node<V> = load().replacePath(path)
 
-  private suspend fun load(): Node<V> {
+  internal suspend fun load(): Node<V> {
     val loadedNode = loaded?.get()
     if (loadedNode != null) {
       return loadedNode
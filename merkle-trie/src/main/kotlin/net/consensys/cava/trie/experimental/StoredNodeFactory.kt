@@ -23,12 +23,36 @@ import net.consensys.cava.rlp.RLPReader
 import net.consensys.cava.trie.CompactEncoding
 import java.util.Collections
 
-internal class StoredNodeFactory<V>(
-  private val storage: MerkleStorage,
+internal class StoredNodeFactory<V> private constructor(
+  private val lookup: suspend (Bytes32) -> Bytes?,
+  private val storage: MerkleStorage?,
   private val valueSerializer: (V) -> Bytes,
-  private val valueDeserializer: (Bytes) -> V
+  private val valueDeserializer: (Bytes) -> V,
+  private val autoCommit: Boolean,
+  private val cache: MerkleNodeCache?
 ) : NodeFactory<V> {
 
+  constructor(
+    storage: MerkleStorage,
+    valueSerializer: (V) -> Bytes,
+    valueDeserializer: (Bytes) -> V,
+    autoCommit: Boolean = true,
+    cache: MerkleNodeCache? = null
+  ) : this({ hash -> storage.get(hash) }, storage, valueSerializer, valueDeserializer, autoCommit, cache)
+
+  companion object {
+    /**
+     * Create a factory that only decodes existing nodes, retrieving them using a lookup function.
+     *
+     * The factory has no storage, so it can be used to read a trie but not to update it.
+     */
+    fun <V> readOnly(
+      lookup: suspend (Bytes32) -> Bytes?,
+      valueSerializer: (V) -> Bytes,
+      valueDeserializer: (Bytes) -> V
+    ): StoredNodeFactory<V> = StoredNodeFactory(lookup, null, valueSerializer, valueDeserializer, false, null)
+  }
+
   private val nullNode: NullNode<V> = NullNode.instance()
 
   override suspend fun createExtension(path: Bytes, child: Node<V>): Node<V> {
@@ -67,21 +91,48 @@ internal class StoredNodeFactory<V>(
   }
 
   private suspend fun maybeStore(node: Node<V>): Node<V> {
+    if (!autoCommit) {
+      // nodes are kept in memory until committed, so avoid encoding and hashing them now
+      return node
+    }
     val nodeRLP = node.rlp()
     if (nodeRLP.size() < 32) {
       return node
     }
-    storage.put(node.hash(), node.rlp())
+    store(node.hash(), nodeRLP)
     return StoredNode(this, node)
   }
 
+  internal suspend fun store(hash: Bytes32, rlp: Bytes) {
+    writableStorage().put(hash, rlp)
+    cache?.put(hash, rlp)
+  }
+
+  internal suspend fun storeAll(nodes: Map<Bytes32, Bytes>) {
+    writableStorage().putAll(nodes)
+    if (cache != null) {
+      for ((hash, rlp) in nodes) {
+        cache.put(hash, rlp)
+      }
+    }
+  }
+
+  private fun writableStorage(): MerkleStorage =
+    checkNotNull(storage) { "Nodes cannot be stored using a read-only node factory" }
+
   internal suspend fun retrieve(hash: Bytes32): Node<V> {
-    val bytes = storage.get(hash) ?: throw MerkleStorageException("Missing value for hash $hash")
+    val bytes = cache?.get(hash) ?: retrieveFromStorage(hash)
     val node = decode(bytes) { "Invalid RLP value for hash $hash" }
     assert(hash == node.hash()) { "Node hash ${node.hash()} not equal to expected $hash" }
     return node
   }
 
+  private suspend fun retrieveFromStorage(hash: Bytes32): Bytes {
+    val bytes = lookup(hash) ?: throw MerkleStorageException("Missing value for hash $hash")
+    cache?.put(hash, bytes)
+    return bytes
+  }
+
   private fun decode(rlp: Bytes, errMessage: () -> String): Node<V> {
     try {
       return RLP.decode(rlp) { reader -> decode(reader, errMessage) }
@@ -142,10 +193,8 @@ internal class StoredNodeFactory<V>(
           nodeRLPs.readValue()
           nullNode
         }
-        nodeRLPs.nextIsList() -> {
-          val child = decode(nodeRLPs, errMessage)
-          StoredNode(this, child)
-        }
+        // inline children are not stored under their own hash, so they cannot be reloaded if they were released
+        nodeRLPs.nextIsList() -> decode(nodeRLPs, errMessage)
         else -> {
           val childHash: Bytes32
           try {
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.trie.experimental
+
+import net.consensys.cava.bytes.Bytes
+
+/**
+ * A difference between the values stored for a key in two tries.
+ *
+ * @param <V> The type of values stored by the tries.
+ * @property key The key.
+ * @property oldValue The value in the original trie, or `null` if the key was added.
+ * @property newValue The value in the updated trie, or `null` if the key was removed.
+ */
+data class TrieDiff<V>(val key: Bytes, val oldValue: V?, val newValue: V?) {
+
+  /**
+   * `true` if the key is not present in the original trie.
+   */
+  val isAdded: Boolean
+    get() = oldValue == null
+
+  /**
+   * `true` if the key is not present in the updated trie.
+   */
+  val isRemoved: Boolean
+    get() = newValue == null
+}
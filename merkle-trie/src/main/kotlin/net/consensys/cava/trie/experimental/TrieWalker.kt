@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.trie.experimental
+
+import net.consensys.cava.bytes.Bytes
+import net.consensys.cava.trie.CompactEncoding.LEAF_TERMINATOR
+import net.consensys.cava.trie.CompactEncoding.pathToBytes
+
+/**
+ * Walks the entries of a trie, or the differences between two tries, in path order.
+ *
+ * Entries are emitted in the order of the Radix-16 paths of their keys, which is the order required by
+ * [SortedTrieBuilder]. When comparing two tries, subtrees that have the same hash are skipped without being loaded.
+ */
+internal class TrieWalker<V>(private val emit: suspend (key: Bytes, oldValue: V?, newValue: V?) -> Unit) {
+
+  /**
+   * Walk all the entries of a trie, emitting each as an addition.
+   */
+  suspend fun walk(root: Node<V>) = walk(root, 0, Bytes.EMPTY)
+
+  /**
+   * Walk the differences between two tries.
+   */
+  suspend fun diff(from: Node<V>, to: Node<V>) = diff(from, 0, to, 0, Bytes.EMPTY)
+
+  private suspend fun walk(node: Node<V>, offset: Int, prefix: Bytes) {
+    val resolved = resolve(node)
+    when (resolved) {
+      is LeafNode<V> -> {
+        val path = resolved.path()
+        emit(pathToBytes(Bytes.concatenate(prefix, path.slice(offset))), null, resolved.value())
+      }
+      is ExtensionNode<V> -> {
+        val path = resolved.path()
+        walk(resolved.child(), 0, Bytes.concatenate(prefix, path.slice(offset)))
+      }
+      is BranchNode<V> -> {
+        for (i in 0 until 16) {
+          walk(resolved.child(i.toByte()), 0, Bytes.concatenate(prefix, Bytes.of(i)))
+        }
+        resolved.value()?.let { emit(pathToBytes(prefix), null, it) }
+      }
+    }
+  }
+
+  private suspend fun diff(from: Node<V>, fromOffset: Int, to: Node<V>, toOffset: Int, prefix: Bytes) {
+    if (fromOffset == 0 && toOffset == 0 && from.rlpRef() == to.rlpRef()) {
+      return
+    }
+    val resolvedFrom = resolve(from)
+    val resolvedTo = resolve(to)
+    if (resolvedFrom is NullNode<V>) {
+      walk(resolvedTo, toOffset, prefix)
+      return
+    }
+    if (resolvedTo is NullNode<V>) {
+      TrieWalker<V> { key, _, value -> emit(key, value, null) }.walk(resolvedFrom, fromOffset, prefix)
+      return
+    }
+
+    for (i in 0 until 16) {
+      val nibble = i.toByte()
+      val fromChild = childCursor(resolvedFrom, fromOffset, nibble)
+      val toChild = childCursor(resolvedTo, toOffset, nibble)
+      if (fromChild != null || toChild != null) {
+        diff(
+          fromChild?.node ?: NullNode.instance(),
+          fromChild?.offset ?: 0,
+          toChild?.node ?: NullNode.instance(),
+          toChild?.offset ?: 0,
+          Bytes.concatenate(prefix, Bytes.of(i))
+        )
+      }
+    }
+
+    val fromValue = valueAt(resolvedFrom, fromOffset)
+    val toValue = valueAt(resolvedTo, toOffset)
+    if (fromValue != toValue) {
+      emit(pathToBytes(prefix), fromValue, toValue)
+    }
+  }
+
+  private class Cursor<V>(val node: Node<V>, val offset: Int)
+
+  private suspend fun childCursor(node: Node<V>, offset: Int, nibble: Byte): Cursor<V>? {
+    return when (node) {
+      is BranchNode<V> -> {
+        val child = node.child(nibble)
+        if (child is NullNode<*>) null else Cursor(child, 0)
+      }
+      is ExtensionNode<V> -> {
+        val path = node.path()
+        when {
+          path.get(offset) != nibble -> null
+          offset + 1 == path.size() -> Cursor(node.child(), 0)
+          else -> Cursor(node, offset + 1)
+        }
+      }
+      is LeafNode<V> -> if (node.path().get(offset) == nibble) Cursor(node, offset + 1) else null
+      else -> null
+    }
+  }
+
+  private suspend fun valueAt(node: Node<V>, offset: Int): V? {
+    return when (node) {
+      is BranchNode<V> -> node.value()
+      is LeafNode<V> -> if (node.path().get(offset) == LEAF_TERMINATOR) node.value() else null
+      else -> null
+    }
+  }
+
+  private suspend fun resolve(node: Node<V>): Node<V> {
+    var resolved = node
+    while (resolved is StoredNode<V>) {
+      resolved = resolved.load()
+    }
+    return resolved
+  }
+}
@@ -13,6 +13,7 @@
 package net.consensys.cava.trie;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import net.consensys.cava.bytes.Bytes;
 
@@ -26,6 +27,15 @@ class CompactEncodingTest {
     assertEquals(Bytes.of(0xa, 0xb, 0xc, 0xd, 0xf, 0xf, 0x10), path);
   }
 
+  @Test
+  void pathToBytes() {
+    assertEquals(Bytes.of(0xab, 0xcd, 0xff), CompactEncoding.pathToBytes(Bytes.of(0xa, 0xb, 0xc, 0xd, 0xf, 0xf, 0x10)));
+    assertEquals(Bytes.of(0xab, 0xcd), CompactEncoding.pathToBytes(Bytes.of(0xa, 0xb, 0xc, 0xd)));
+    assertEquals(Bytes.EMPTY, CompactEncoding.pathToBytes(Bytes.of(0x10)));
+    assertThrows(IllegalArgumentException.class, () -> CompactEncoding.pathToBytes(Bytes.of(0xa, 0xb, 0xc, 0x10)));
+    assertThrows(IllegalArgumentException.class, () -> CompactEncoding.pathToBytes(Bytes.of(0xa, 0x1b)));
+  }
+
   @Test
   void encodePath() {
     assertEquals(Bytes.of(0x11, 0x23, 0x45), CompactEncoding.encode(Bytes.of(0x01, 0x02, 0x03, 0x04, 0x05)));
@@ -15,12 +15,15 @@
  */
 package net.consensys.cava.trie.experimental
 
+import kotlinx.coroutines.experimental.channels.toList
 import kotlinx.coroutines.experimental.runBlocking
 import net.consensys.cava.bytes.Bytes
 import net.consensys.cava.junit.BouncyCastleExtension
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Assertions.assertNotEquals
 import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertThrows
+import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
@@ -265,4 +268,140 @@ internal class MerklePatriciaTrieKotlinTest {
       assertEquals(hash1, trie.rootHash())
     }
   }
+
+  @Test
+  fun testParallelRootHashMatchesRootHash() {
+    val parallelTrie = MerklePatriciaTrie.storingStrings()
+    runBlocking {
+      for (i in 0 until 1000) {
+        val key = Bytes.ofUnsignedInt(i * 7919L)
+        trie.put(key, "value$i")
+        parallelTrie.put(key, "value$i")
+      }
+    }
+    assertEquals(trie.rootHash(), parallelTrie.parallelRootHash())
+  }
+
+  @Test
+  fun testPutAllOnEmptyTrieMatchesIndividualPuts() {
+    val entries = HashMap<Bytes, String>()
+    for (i in 0 until 500) {
+      entries[Bytes.ofUnsignedInt(i * 7919L).slice(0, 1 + i % 4)] = "value$i"
+    }
+    entries[Bytes.EMPTY] = "empty"
+    runBlocking {
+      for ((key, value) in entries) {
+        trie.put(key, value)
+      }
+      val bulkTrie = MerklePatriciaTrie.storingStrings()
+      bulkTrie.putAll(entries)
+      assertEquals(trie.rootHash(), bulkTrie.rootHash())
+      for ((key, value) in entries) {
+        assertEquals(value, bulkTrie.get(key))
+      }
+    }
+  }
+
+  @Test
+  fun testPutAllSortedRejectsUnsortedEntries() {
+    val bulkTrie = MerklePatriciaTrie.storingStrings()
+    val entries = listOf(Pair(Bytes.of(2), "value1"), Pair(Bytes.of(1), "value2"))
+    assertThrows(IllegalArgumentException::class.java) {
+      runBlocking { bulkTrie.putAllSorted(entries.iterator()) }
+    }
+  }
+
+  @Test
+  fun testPutAllSortedRejectsNonEmptyTrie() {
+    val nonEmptyTrie = MerklePatriciaTrie.storingStrings()
+    runBlocking {
+      nonEmptyTrie.put(Bytes.of(1), "value1")
+    }
+    assertThrows(IllegalStateException::class.java) {
+      runBlocking { nonEmptyTrie.putAllSorted(listOf(Pair(Bytes.of(2), "value2")).iterator()) }
+    }
+  }
+
+  @Test
+  fun testProofsVerifyAgainstRootHash() {
+    runBlocking {
+      for (i in 0 until 100) {
+        trie.put(Bytes.ofUnsignedInt(i * 7919L), "value$i")
+      }
+      val rootHash = trie.rootHash()
+      for (i in 0 until 100) {
+        val key = Bytes.ofUnsignedInt(i * 7919L)
+        val value = MerkleProof.verify(rootHash, key, trie.getProof(key))
+        assertEquals(stringSerializer("value$i"), value)
+      }
+
+      val absentKey = Bytes.ofUnsignedInt(3)
+      assertNull(MerkleProof.verify(rootHash, absentKey, trie.getProof(absentKey)))
+    }
+  }
+
+  @Test
+  fun testVerifyRejectsIncompleteProof() {
+    runBlocking {
+      for (i in 0 until 100) {
+        trie.put(Bytes.ofUnsignedInt(i * 7919L), "value$i")
+      }
+      val key = Bytes.ofUnsignedInt(7919L)
+      val proof = trie.getProof(key)
+      assertThrows(MerkleStorageException::class.java) {
+        runBlocking { MerkleProof.verify(trie.rootHash(), key, proof.subList(0, proof.size - 1)) }
+      }
+    }
+  }
+
+  @Test
+  fun testEntriesAreInPathOrder() {
+    runBlocking {
+      trie.put(Bytes.of(1, 2), "value12")
+      trie.put(Bytes.of(1), "value1")
+      trie.put(Bytes.of(0xff), "valueff")
+      trie.put(Bytes.of(1, 2, 3), "value123")
+      trie.put(Bytes.of(0x10), "value10")
+
+      val entries = trie.entries().toList()
+      assertEquals(
+        listOf(
+          Pair(Bytes.of(1, 2, 3), "value123"),
+          Pair(Bytes.of(1, 2), "value12"),
+          Pair(Bytes.of(1), "value1"),
+          Pair(Bytes.of(0x10), "value10"),
+          Pair(Bytes.of(0xff), "valueff")
+        ),
+        entries
+      )
+
+      val copy = MerklePatriciaTrie.storingStrings()
+      copy.putAllSorted(entries.iterator())
+      assertEquals(trie.rootHash(), copy.rootHash())
+    }
+  }
+
+  @Test
+  fun testDiffReportsAddedRemovedAndChangedKeys() {
+    val other = MerklePatriciaTrie.storingStrings()
+    runBlocking {
+      for (i in 0 until 100) {
+        trie.put(Bytes.ofUnsignedInt(i.toLong()), "value$i")
+        other.put(Bytes.ofUnsignedInt(i.toLong()), "value$i")
+      }
+      other.remove(Bytes.ofUnsignedInt(3))
+      other.put(Bytes.ofUnsignedInt(42), "changed")
+      other.put(Bytes.of(1, 2), "added")
+
+      assertEquals(
+        listOf(
+          TrieDiff(Bytes.ofUnsignedInt(3), "value3", null),
+          TrieDiff(Bytes.ofUnsignedInt(42), "value42", "changed"),
+          TrieDiff(Bytes.of(1, 2), null, "added")
+        ),
+        trie.diff(other).toList()
+      )
+      assertTrue(trie.diff(trie).toList().isEmpty())
+    }
+  }
 }
@@ -15,6 +15,7 @@
  */
 package net.consensys.cava.trie.experimental
 
+import kotlinx.coroutines.experimental.channels.toList
 import kotlinx.coroutines.experimental.runBlocking
 import net.consensys.cava.bytes.Bytes
 import net.consensys.cava.bytes.Bytes32
@@ -22,9 +23,12 @@ import net.consensys.cava.junit.BouncyCastleExtension
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Assertions.assertNotEquals
 import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
+import java.lang.ref.WeakReference
+import java.util.concurrent.atomic.AtomicInteger
 
 @ExtendWith(BouncyCastleExtension::class)
 internal class StoredMerklePatriciaTrieKotlinTest {
@@ -323,4 +327,238 @@ internal class StoredMerklePatriciaTrieKotlinTest {
       assertEquals("value3", trie3.get(key3))
     }
   }
+
+  @Test
+  fun testDeferredTrieDoesNotStoreUntilCommit() {
+    val deferredTrie = StoredMerklePatriciaTrie(
+      merkleStorage, MerkleTrie.EMPTY_TRIE_ROOT_HASH, ::stringSerializer, ::stringDeserializer, false)
+    runBlocking {
+      for (i in 0 until 100) {
+        deferredTrie.put(Bytes.of(1, i, 3), "value$i")
+      }
+      assertTrue(storage.isEmpty())
+
+      for (i in 0 until 100) {
+        trie.put(Bytes.of(1, i, 3), "value$i")
+      }
+      val storedCount = storage.size
+      storage.clear()
+
+      val rootHash = deferredTrie.commit()
+      assertEquals(trie.rootHash(), rootHash)
+      assertEquals(rootHash, deferredTrie.rootHash())
+      assertTrue(storage.size < storedCount)
+
+      val reloaded = StoredMerklePatriciaTrie.storingStrings(merkleStorage, rootHash)
+      for (i in 0 until 100) {
+        assertEquals("value$i", reloaded.get(Bytes.of(1, i, 3)))
+      }
+    }
+  }
+
+  @Test
+  fun testDeferredTrieCommitsOnlyChangedNodes() {
+    val deferredTrie = StoredMerklePatriciaTrie(
+      merkleStorage, MerkleTrie.EMPTY_TRIE_ROOT_HASH, ::stringSerializer, ::stringDeserializer, false)
+    val key1 = Bytes.of(1, 5, 8, 9)
+    val key2 = Bytes.of(1, 6, 1, 2)
+    val key3 = Bytes.of(1, 6, 1, 3)
+    runBlocking {
+      deferredTrie.put(key1, "value1")
+      deferredTrie.put(key2, "value2")
+      val hash1 = deferredTrie.commit()
+      assertEquals(hash1, deferredTrie.commit())
+
+      val committed = HashMap(storage)
+      deferredTrie.put(key3, "value3")
+      val hash2 = deferredTrie.commit()
+      assertNotEquals(hash1, hash2)
+      assertTrue(storage.keys.containsAll(committed.keys))
+
+      deferredTrie.clearCache()
+      assertEquals("value1", deferredTrie.get(key1))
+      assertEquals("value2", deferredTrie.get(key2))
+      assertEquals("value3", deferredTrie.get(key3))
+
+      val trie1 = StoredMerklePatriciaTrie.storingStrings(merkleStorage, hash1)
+      assertEquals("value1", trie1.get(key1))
+      assertEquals("value2", trie1.get(key2))
+      assertNull(trie1.get(key3))
+    }
+  }
+
+  @Test
+  fun testCachedTrieReadsNodesFromCache() {
+    val cache = BoundedMerkleNodeCache(1024 * 1024)
+    val cachedTrie = StoredMerklePatriciaTrie(
+      merkleStorage, MerkleTrie.EMPTY_TRIE_ROOT_HASH, ::stringSerializer, ::stringDeserializer, true, cache)
+    runBlocking {
+      for (i in 0 until 20) {
+        cachedTrie.put(Bytes.of(1, i, 3), "value$i")
+      }
+    }
+    assertTrue(cache.size() > 0)
+
+    val reloaded = StoredMerklePatriciaTrie(
+      merkleStorage, cachedTrie.rootHash(), ::stringSerializer, ::stringDeserializer, true, cache)
+    storage.clear()
+    runBlocking {
+      for (i in 0 until 20) {
+        assertEquals("value$i", reloaded.get(Bytes.of(1, i, 3)))
+      }
+    }
+    assertTrue(cache.hitCount() > 0)
+  }
+
+  @Test
+  fun testCacheEvictsNodesWhenFull() {
+    val cache = BoundedMerkleNodeCache(256)
+    val cachedTrie = StoredMerklePatriciaTrie(
+      merkleStorage, MerkleTrie.EMPTY_TRIE_ROOT_HASH, ::stringSerializer, ::stringDeserializer, true, cache)
+    runBlocking {
+      for (i in 0 until 100) {
+        cachedTrie.put(Bytes.of(1, i, 3), "value$i")
+      }
+      cachedTrie.clearCache()
+      for (i in 0 until 100) {
+        assertEquals("value$i", cachedTrie.get(Bytes.of(1, i, 3)))
+      }
+    }
+    assertTrue(cache.evictionCount() > 0)
+    assertTrue(cache.missCount() > 0)
+  }
+
+  @Test
+  fun testCachedFactoryReloadsInlineBranchChildrenAfterReferencesAreCleared() {
+    val cache = BoundedMerkleNodeCache(1024 * 1024)
+    val cachedTrie = StoredMerklePatriciaTrie(
+      merkleStorage, MerkleTrie.EMPTY_TRIE_ROOT_HASH, ::stringSerializer, ::stringDeserializer, true, cache)
+    runBlocking {
+      // the leaves below the branch are small enough to be encoded inline in the branch
+      for (i in 0 until 10) {
+        cachedTrie.put(Bytes.of(1, i), "v$i")
+      }
+    }
+
+    val nodeFactory = StoredNodeFactory(merkleStorage, ::stringSerializer, ::stringDeserializer, true, cache)
+    runBlocking {
+      val branch = storage.keys.map { nodeFactory.retrieve(it) }.single { it is BranchNode<*> } as BranchNode<*>
+      clearWeakReferences()
+      for (i in 0 until 10) {
+        assertEquals("v$i", branch.child(i.toByte()).value())
+      }
+    }
+  }
+
+  private fun clearWeakReferences() {
+    val sentinel = WeakReference(Any())
+    repeat(100) {
+      System.gc()
+      if (sentinel.get() == null) {
+        return
+      }
+      Thread.sleep(10)
+    }
+  }
+
+  @Test
+  fun testParallelCommitMatchesCommit() {
+    val deferredTrie = StoredMerklePatriciaTrie(
+      merkleStorage, MerkleTrie.EMPTY_TRIE_ROOT_HASH, ::stringSerializer, ::stringDeserializer, false)
+    runBlocking {
+      for (i in 0 until 1000) {
+        val key = Bytes.ofUnsignedInt(i * 7919L)
+        trie.put(key, "value$i")
+        deferredTrie.put(key, "value$i")
+      }
+      storage.clear()
+
+      assertEquals(trie.rootHash(), deferredTrie.parallelCommit())
+
+      val reloaded = StoredMerklePatriciaTrie.storingStrings(merkleStorage, deferredTrie.rootHash())
+      for (i in 0 until 1000) {
+        assertEquals("value$i", reloaded.get(Bytes.ofUnsignedInt(i * 7919L)))
+      }
+    }
+  }
+
+  @Test
+  fun testPutAllOnEmptyTrieStoresOnlyFinalNodes() {
+    val entries = HashMap<Bytes, String>()
+    for (i in 0 until 500) {
+      entries[Bytes.ofUnsignedInt(i * 7919L)] = "value$i"
+    }
+    runBlocking {
+      for ((key, value) in entries) {
+        trie.put(key, value)
+      }
+      val storedCount = storage.size
+      storage.clear()
+
+      val bulkTrie = StoredMerklePatriciaTrie.storingStrings(merkleStorage)
+      bulkTrie.putAll(entries)
+      assertEquals(trie.rootHash(), bulkTrie.rootHash())
+      assertTrue(storage.size < storedCount)
+
+      val reloaded = StoredMerklePatriciaTrie.storingStrings(merkleStorage, bulkTrie.rootHash())
+      for ((key, value) in entries) {
+        assertEquals(value, reloaded.get(key))
+      }
+    }
+  }
+
+  @Test
+  fun testProofsFromStoredTrieVerify() {
+    val key1 = Bytes.of(1, 5, 8, 9)
+    val key2 = Bytes.of(1, 6, 1, 2)
+    runBlocking {
+      trie.put(key1, "value1")
+      trie.put(key2, "value2")
+      trie.clearCache()
+
+      val reloaded = StoredMerklePatriciaTrie.storingStrings(merkleStorage, trie.rootHash())
+      assertEquals(stringSerializer("value1"), MerkleProof.verify(trie.rootHash(), key1, reloaded.getProof(key1)))
+      assertNull(MerkleProof.verify(trie.rootHash(), Bytes.of(2), reloaded.getProof(Bytes.of(2))))
+    }
+  }
+
+  @Test
+  fun testDiffOnlyLoadsChangedNodes() {
+    runBlocking {
+      for (i in 0 until 1000) {
+        trie.put(Bytes.ofUnsignedInt(i.toLong()), "value$i")
+      }
+      val fromRoot = trie.rootHash()
+      trie.put(Bytes.ofUnsignedInt(500), "changed")
+      trie.remove(Bytes.ofUnsignedInt(10))
+      val toRoot = trie.rootHash()
+
+      val loaded = AtomicInteger()
+      val countingStorage = object : MerkleStorage {
+        override suspend fun get(hash: Bytes32): Bytes? {
+          loaded.incrementAndGet()
+          return merkleStorage.get(hash)
+        }
+
+        override suspend fun put(hash: Bytes32, content: Bytes) = merkleStorage.put(hash, content)
+      }
+
+      val fromTrie = StoredMerklePatriciaTrie.storingStrings(countingStorage, fromRoot)
+      assertEquals(
+        listOf(
+          TrieDiff(Bytes.ofUnsignedInt(10), "value10", null),
+          TrieDiff(Bytes.ofUnsignedInt(500), "value500", "changed")
+        ),
+        fromTrie.diff(toRoot).toList()
+      )
+      assertTrue(loaded.get() < 50)
+
+      val emptyTrie = StoredMerklePatriciaTrie.storingStrings(merkleStorage)
+      val added = emptyTrie.diff(toRoot).toList()
+      assertEquals(999, added.size)
+      assertTrue(added.all { it.isAdded })
+      val toTrie = StoredMerklePatriciaTrie.storingStrings(merkleStorage, toRoot)
+      assertEquals(toTrie.entries().toList(), added.map { Pair(it.key, it.newValue!!) })
+    }
+  }
 }
@@ -12,14 +12,34 @@
  */
 package net.consensys.cava.rlp;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndex;
+
 import net.consensys.cava.bytes.Bytes;
 
+import java.util.Arrays;
 import java.util.function.Function;
 
-final class BytesValueRLPReader implements RLPReader {
+/**
+ * An {@link IndexedRLPReader} over a {@link Bytes} value.
+ *
+ * <p>
+ * Items are read sequentially. The first time the number of items is needed, or the reader is moved to an item, the
+ * offsets of all the items are computed in a single pass, so that later counting, skipping and seeking take constant
+ * time.
+ */
+final class BytesValueRLPReader implements IndexedRLPReader {
+
+  // branch nodes of the Merkle Patricia trie, which are the most common lists, have 17 items
+  private static final int BRANCH_NODE_SIZE = 17;
 
   private final Bytes content;
+  // the byte offset of the next item
   private int index = 0;
+  // the number of items that have been read or skipped
+  private int position = 0;
+  // the byte offsets of the items, computed on demand
+  private int[] offsets;
 
   BytesValueRLPReader(Bytes content) {
     this.content = content;
@@ -33,6 +53,7 @@ final class BytesValueRLPReader implements RLPReader {
     }
     int prefix = (((int) content.get(index)) & 0xFF);
     if (prefix <= 0x7f) {
+      position++;
       return content.slice(index++, 1);
     }
     remaining--;
@@ -48,6 +69,7 @@ final class BytesValueRLPReader implements RLPReader {
         throw new InvalidRLPEncodingException("Value should have been encoded as a single byte " + bytes.toHexString());
       }
       index += 1 + length;
+      position++;
       return bytes;
     }
     if (prefix <= 0xbf) {
@@ -77,6 +99,7 @@ final class BytesValueRLPReader implements RLPReader {
       index += 1 + lengthOfLength;
       Bytes bytes = content.slice(index, length);
       index += length;
+      position++;
       return bytes;
     }
     throw new InvalidRLPTypeException("Attempted to read a value but next item is a list");
@@ -109,83 +132,104 @@ final class BytesValueRLPReader implements RLPReader {
 
   @Override
   public void skipNext() {
+    if (offsets != null) {
+      if (position == offsets.length) {
+        throw new EndOfRLPException();
+      }
+      position++;
+      index = (position == offsets.length) ? content.size() : offsets[position];
+      return;
+    }
     int remaining = content.size() - index;
     if (remaining == 0) {
       throw new EndOfRLPException();
     }
-    int prefix = (((int) content.get(index)) & 0xFF);
-    if (prefix <= 0x7f) {
-      index++;
-      return;
-    }
-    remaining--;
+    index += itemLength(index);
+    position++;
+  }
 
-    if (prefix <= 0xb7) {
-      int length = prefix - 0x80;
-      if (remaining < length) {
-        throw new InvalidRLPEncodingException(
-            "Insufficient bytes in RLP encoding: expected " + length + " but have only " + remaining);
-      }
-      index += 1 + length;
+  @Override
+  public void skip(int count) {
+    checkArgument(count >= 0, "Invalid negative count");
+    if (count == 0) {
       return;
     }
-    if (prefix <= 0xbf) {
-      int lengthOfLength = prefix - 0xb7;
-      if (remaining < lengthOfLength) {
-        throw new InvalidRLPEncodingException(
-            "Insufficient bytes in RLP encoding: expected " + lengthOfLength + " but have only " + remaining);
-      }
+    if (count > remaining()) {
+      throw new EndOfRLPException();
+    }
+    seek(position + count);
+  }
 
-      remaining -= lengthOfLength;
-      int length = content.slice(index + 1, lengthOfLength).intValue();
-      if (remaining < length) {
-        throw new InvalidRLPEncodingException(
-            "Insufficient bytes in RLP encoding: expected " + length + " but have only " + remaining);
+  @Override
+  public int position() {
+    return position;
+  }
+
+  @Override
+  public void seek(int position) {
+    int[] offsets = offsets();
+    checkPositionIndex(position, offsets.length);
+    this.position = position;
+    this.index = (position == offsets.length) ? content.size() : offsets[position];
+  }
+
+  @Override
+  public int remaining() {
+    return offsets().length - position;
+  }
+
+  private int[] offsets() {
+    if (offsets == null) {
+      int[] found = new int[BRANCH_NODE_SIZE];
+      int count = 0;
+      int size = content.size();
+      for (int at = 0; at < size; at += itemLength(at)) {
+        if (count == found.length) {
+          found = Arrays.copyOf(found, count * 2);
+        }
+        found[count++] = at;
       }
+      offsets = (count == found.length) ? found : Arrays.copyOf(found, count);
+    }
+    return offsets;
+  }
 
-      index += 1 + lengthOfLength + length;
-      return;
+  // the total length of the item at the given offset, including its prefix
+  private int itemLength(int at) {
+    int remaining = content.size() - at;
+    int prefix = (((int) content.get(at)) & 0xFF);
+    if (prefix <= 0x7f) {
+      return 1;
     }
-    if (prefix <= 0xf7) {
-      int length = prefix - 0xc0;
+    remaining--;
+
+    if (prefix <= 0xb7 || (prefix >= 0xc0 && prefix <= 0xf7)) {
+      int length = prefix - ((prefix <= 0xb7) ? 0x80 : 0xc0);
       if (remaining < length) {
         throw new InvalidRLPEncodingException(
             "Insufficient bytes in RLP encoding: expected " + length + " but have only " + remaining);
       }
-      index += 1 + length;
-      return;
+      return 1 + length;
     }
 
-    int lengthOfLength = prefix - 0xf7;
+    int lengthOfLength = prefix - ((prefix <= 0xbf) ? 0xb7 : 0xf7);
     if (remaining < lengthOfLength) {
       throw new InvalidRLPEncodingException(
           "Insufficient bytes in RLP encoding: expected " + lengthOfLength + " but have only " + remaining);
     }
 
     remaining -= lengthOfLength;
-    int length = content.slice(index + 1, lengthOfLength).intValue();
-
-    if (remaining < length) {
-      throw new InvalidRLPEncodingException(
-          "Insufficient bytes in RLP encoding: expected " + lengthOfLength + " but have only " + remaining);
-    }
-
-    index += 1 + lengthOfLength + length;
-  }
-
-  @Override
-  public int remaining() {
-    int oldIndex = index;
+    int length;
     try {
-      int count = 0;
-      while (!isComplete()) {
-        count++;
-        skipNext();
-      }
-      return count;
-    } finally {
-      index = oldIndex;
+      length = content.slice(at + 1, lengthOfLength).intValue();
+    } catch (IllegalArgumentException e) {
+      throw new InvalidRLPEncodingException(e.getMessage());
+    }
+    if (length < 0 || remaining < length) {
+      throw new InvalidRLPEncodingException(
+          "Insufficient bytes in RLP encoding: expected " + length + " but have only " + remaining);
     }
+    return 1 + lengthOfLength + length;
   }
 
   @Override
@@ -213,6 +257,7 @@ final class BytesValueRLPReader implements RLPReader {
       index++;
       Bytes bytes = content.slice(index, length);
       index += length;
+      position++;
       return bytes;
     }
 
@@ -237,6 +282,7 @@ final class BytesValueRLPReader implements RLPReader {
     index += 1 + lengthOfLength;
     Bytes bytes = content.slice(index, length);
     index += length;
+    position++;
     return bytes;
   }
 }
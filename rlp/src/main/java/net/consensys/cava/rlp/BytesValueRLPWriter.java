@@ -12,144 +12,208 @@
  */
 package net.consensys.cava.rlp;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.bytes.MutableBytes;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A {@link RLPWriter} that encodes into a single growable array.
+ *
+ * <p>
+ * A list is written by reserving a single byte for its prefix, writing its items in place, and then filling in the
+ * prefix once the length of the items is known. Only lists longer than 55 bytes, which need a longer prefix, have their
+ * items moved.
+ */
 final class BytesValueRLPWriter implements RLPWriter {
 
-  private static final byte[] EMPTY_VALUE = new byte[] {(byte) 0x80};
-  private static final int COMBINE_THRESHOLD = 32;
+  private static final int DEFAULT_CAPACITY = 64;
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+  private byte[] buffer;
+  private int position;
 
-  private ArrayDeque<byte[]> values = new ArrayDeque<>();
+  BytesValueRLPWriter() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  BytesValueRLPWriter(int initialCapacity) {
+    this.buffer = new byte[initialCapacity];
+  }
 
   Bytes toBytes() {
-    if (values.isEmpty()) {
+    if (position == 0) {
       return Bytes.EMPTY;
     }
-    return Bytes.wrap(values.stream().map(Bytes::wrap).toArray(Bytes[]::new));
+    if (position < buffer.length) {
+      // do not retain the unused capacity, and wrap the whole array so that comparisons take the fast path
+      buffer = Arrays.copyOf(buffer, position);
+    }
+    return Bytes.wrap(buffer);
+  }
+
+  void writeTo(OutputStream out) throws IOException {
+    out.write(buffer, 0, position);
+  }
+
+  void writeTo(ByteBuffer byteBuffer) {
+    byteBuffer.put(buffer, 0, position);
+  }
+
+  void writeTo(ByteBuf byteBuf) {
+    byteBuf.writeBytes(buffer, 0, position);
+  }
+
+  void writeTo(Buffer vertxBuffer) {
+    vertxBuffer.appendBytes(buffer, 0, position);
   }
 
   @Override
   public void writeRLP(Bytes value) {
     requireNonNull(value);
-    appendBytes(value.toArrayUnsafe());
+    int size = value.size();
+    ensureCapacity(size);
+    value.copyTo(MutableBytes.wrap(buffer), position);
+    position += size;
   }
 
   @Override
   public void writeValue(Bytes value) {
     requireNonNull(value);
-    writeByteArray(value.toArrayUnsafe());
+    int size = value.size();
+    if (size == 1 && (value.get(0) & 0xFF) <= 0x7f) {
+      writeByte(value.get(0));
+      return;
+    }
+    writeLength(size, 0x80);
+    if (size > 0) {
+      writeRLP(value);
+    }
   }
 
   @Override
   public void writeByteArray(byte[] value) {
-    encodeByteArray(value, this::appendBytes);
-  }
-
-  static Bytes encodeValue(byte[] value) {
-    int maxSize = value.length + 5;
-    ByteBuffer buffer = ByteBuffer.allocate(maxSize);
-    encodeByteArray(value, buffer::put);
-    return Bytes.wrap(buffer.array(), 0, buffer.position());
-  }
-
-  private static void encodeByteArray(byte[] value, Consumer<byte[]> appender) {
     requireNonNull(value);
     int size = value.length;
-    if (size == 0) {
-      appender.accept(EMPTY_VALUE);
+    if (size == 1 && (value[0] & 0xFF) <= 0x7f) {
+      writeByte(value[0]);
       return;
     }
-    if (size == 1) {
-      byte b = value[0];
-      if ((b & 0xFF) <= 0x7f) {
-        appender.accept(value);
-        return;
-      }
-    }
-    appender.accept(encodeLength(size, 0x80));
-    appender.accept(value);
+    writeLength(size, 0x80);
+    ensureCapacity(size);
+    System.arraycopy(value, 0, buffer, position, size);
+    position += size;
+  }
+
+  static Bytes encodeValue(byte[] value) {
+    BytesValueRLPWriter writer = new BytesValueRLPWriter(value.length + 5);
+    writer.writeByteArray(value);
+    return writer.toBytes();
   }
 
   @Override
   public void writeLong(long value) {
-    appendBytes(encodeNumber(value));
+    if (value <= 0x7f) {
+      writeByte((byte) (value & 0xFF));
+      return;
+    }
+    writeLongBytes(value, 0x80);
   }
 
   static Bytes encodeLong(long value) {
-    return Bytes.wrap(encodeNumber(value));
+    BytesValueRLPWriter writer = new BytesValueRLPWriter(9);
+    writer.writeLong(value);
+    return writer.toBytes();
   }
 
   @Override
   public void writeList(Consumer<RLPWriter> fn) {
     requireNonNull(fn);
-    BytesValueRLPWriter listWriter = new BytesValueRLPWriter();
-    fn.accept(listWriter);
-    writeEncodedValuesAsList(listWriter.values);
-  }
-
-  private void writeEncodedValuesAsList(Deque<byte[]> values) {
-    int totalSize = 0;
-    for (byte[] value : values) {
-      try {
-        totalSize = Math.addExact(totalSize, value.length);
-      } catch (ArithmeticException e) {
-        throw new IllegalArgumentException("Combined length of values is too long (> Integer.MAX_VALUE)");
-      }
-    }
-    appendBytes(encodeLength(totalSize, 0xc0));
-    this.values.addAll(values);
-  }
-
-  private void appendBytes(byte[] bytes) {
-    if (bytes.length < COMBINE_THRESHOLD) {
-      if (!values.isEmpty()) {
-        byte[] last = values.getLast();
-        if (last.length <= (COMBINE_THRESHOLD - bytes.length)) {
-          byte[] combined = new byte[last.length + bytes.length];
-          System.arraycopy(last, 0, combined, 0, last.length);
-          System.arraycopy(bytes, 0, combined, last.length, bytes.length);
-          values.pollLast();
-          values.add(combined);
-          return;
-        }
-      }
+    int start = position;
+    // reserve space for a short list prefix
+    writeByte((byte) 0);
+    fn.accept(this);
+
+    int length = position - start - 1;
+    if (length <= 55) {
+      buffer[start] = (byte) (0xc0 + length);
+      return;
     }
-    values.add(bytes);
+
+    // move the items to make room for a long list prefix
+    int lengthBytes = lengthInBytes(length);
+    ensureCapacity(lengthBytes);
+    System.arraycopy(buffer, start + 1, buffer, start + 1 + lengthBytes, length);
+    position = start;
+    writeLongBytes(length, 0xc0 + 55);
+    position += length;
   }
 
-  private static byte[] encodeNumber(long value) {
-    if (value <= 0x7f) {
-      return new byte[] {(byte) (value & 0xFF)};
-    }
-    return encodeLongBytes(value, 0x80);
+  @Override
+  public void writeList(int payloadLength, Consumer<RLPWriter> fn) {
+    requireNonNull(fn);
+    checkArgument(payloadLength >= 0, "Invalid negative payload length");
+    writeLength(payloadLength, 0xc0);
+    ensureCapacity(payloadLength);
+    int start = position;
+    fn.accept(this);
+    int length = position - start;
+    checkArgument(
+        length == payloadLength,
+        "Expected list values to have an encoded length of %s bytes, but %s bytes were written",
+        payloadLength,
+        length);
   }
 
-  private static byte[] encodeLength(int length, int offset) {
+  private void writeLength(int length, int offset) {
     if (length <= 55) {
-      return new byte[] {(byte) ((offset + length) & 0xFF)};
+      writeByte((byte) ((offset + length) & 0xFF));
+      return;
     }
-    return encodeLongBytes(length, offset + 55);
+    writeLongBytes(length, offset + 55);
   }
 
-  private static byte[] encodeLongBytes(long value, int offset) {
-    int zeros = Long.numberOfLeadingZeros(value);
-    int resultBytes = 8 - (zeros / 8);
-
-    byte[] encoded = new byte[resultBytes + 1];
-    encoded[0] = (byte) ((offset + resultBytes) & 0xFF);
+  private void writeLongBytes(long value, int offset) {
+    int resultBytes = lengthInBytes(value);
+    ensureCapacity(resultBytes + 1);
+    buffer[position] = (byte) ((offset + resultBytes) & 0xFF);
 
     int shift = 0;
     for (int i = 0; i < resultBytes; i++) {
-      encoded[resultBytes - i] = (byte) ((value >> shift) & 0xFF);
+      buffer[position + resultBytes - i] = (byte) ((value >> shift) & 0xFF);
       shift += 8;
     }
-    return encoded;
+    position += resultBytes + 1;
+  }
+
+  private static int lengthInBytes(long value) {
+    return 8 - (Long.numberOfLeadingZeros(value) / 8);
+  }
+
+  private void writeByte(byte b) {
+    ensureCapacity(1);
+    buffer[position++] = b;
+  }
+
+  private void ensureCapacity(int length) {
+    if (length <= buffer.length - position) {
+      return;
+    }
+    if (length > MAX_CAPACITY - position) {
+      throw new IllegalArgumentException("Combined length of values is too long (> Integer.MAX_VALUE)");
+    }
+    int required = position + length;
+    int newCapacity = buffer.length <= MAX_CAPACITY / 2 ? buffer.length * 2 : MAX_CAPACITY;
+    buffer = Arrays.copyOf(buffer, Math.max(required, newCapacity));
   }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.rlp;
+
+/**
+ * A {@link RLPReader} over a complete RLP source, which can move to any of its values.
+ *
+ * <p>
+ * The readers provided by {@link RLP#decode(net.consensys.cava.bytes.Bytes, java.util.function.Function)} and
+ * {@link RLP#decodeList(net.consensys.cava.bytes.Bytes, java.util.function.Function)}, and the readers they provide
+ * for nested lists, are indexed readers.
+ */
+public interface IndexedRLPReader extends RLPReader {
+
+  /**
+   * The index of the next value or list to read.
+   *
+   * @return The number of values or lists that have been read or skipped.
+   */
+  int position();
+
+  /**
+   * Move the reader to a value or list, which may be one that has already been read.
+   *
+   * @param position The index of the value or list to move to, which may be the number of values to move to the end.
+   * @throws InvalidRLPEncodingException If there is an error decoding the RLP source.
+   * @throws IndexOutOfBoundsException If {@code position} is negative or greater than the number of values.
+   */
+  void seek(int position);
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.rlp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+final class ListRLPCodec<T> implements RLPCodec<List<T>> {
+
+  private final RLPCodec<T> elementCodec;
+  // created once, rather than on each call to decode
+  private final Function<RLPReader, List<T>> elementsDecoder = this::decodeElements;
+
+  ListRLPCodec(RLPCodec<T> elementCodec) {
+    this.elementCodec = elementCodec;
+  }
+
+  @Override
+  public void encode(List<T> value, RLPWriter writer) {
+    writer.writeList(payloadLength(value), listWriter -> {
+      for (T element : value) {
+        elementCodec.encode(element, listWriter);
+      }
+    });
+  }
+
+  @Override
+  public List<T> decode(RLPReader reader) {
+    return reader.readList(elementsDecoder);
+  }
+
+  @Override
+  public int encodedSize(List<T> value) {
+    return RLP.encodedListLength(payloadLength(value));
+  }
+
+  private int payloadLength(List<T> value) {
+    int length = 0;
+    for (T element : value) {
+      length += elementCodec.encodedSize(element);
+    }
+    return length;
+  }
+
+  private List<T> decodeElements(RLPReader listReader) {
+    List<T> elements = new ArrayList<>();
+    while (!listReader.isComplete()) {
+      elements.add(elementCodec.decode(listReader));
+    }
+    return elements;
+  }
+}
@@ -16,14 +16,20 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import net.consensys.cava.bytes.Bytes;
+import net.consensys.cava.units.bigints.UInt256;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import com.google.common.base.Charsets;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
 
 /**
  * Recursive Length Prefix (RLP) encoding and decoding.
@@ -60,6 +66,118 @@ public final class RLP {
     return writer.toBytes();
   }
 
+  /**
+   * Encode a list of values to a {@link Bytes} value, when the length of the encoded values is known in advance.
+   *
+   * <p>
+   * The list prefix is written first, and the values are written once into an array of the exact size of the encoding.
+   *
+   * @param payloadLength The total length of the encoded values in the list, not including the list prefix.
+   * @param fn A consumer that will be provided with a {@link RLPWriter} that can consume values.
+   * @return The RLP encoding in a {@link Bytes} value.
+   * @throws IllegalArgumentException If the values written do not have a total length of {@code payloadLength}.
+   * @see #encodedListLength(int)
+   */
+  public static Bytes encodeList(int payloadLength, Consumer<RLPWriter> fn) {
+    checkArgument(payloadLength >= 0, "Invalid negative payload length");
+    requireNonNull(fn);
+    BytesValueRLPWriter writer = new BytesValueRLPWriter(encodedListLength(payloadLength));
+    writer.writeList(payloadLength, fn);
+    return writer.toBytes();
+  }
+
+  /**
+   * Encode an object to a {@link Bytes} value, using a codec.
+   *
+   * <p>
+   * The object is written once into an array of the exact size of the encoding.
+   *
+   * @param value The object to encode.
+   * @param codec The codec for the object.
+   * @param <T> The type of the object.
+   * @return The RLP encoding in a {@link Bytes} value.
+   */
+  public static <T> Bytes encode(T value, RLPCodec<T> codec) {
+    requireNonNull(codec);
+    BytesValueRLPWriter writer = new BytesValueRLPWriter(codec.encodedSize(value));
+    codec.encode(value, writer);
+    return writer.toBytes();
+  }
+
+  /**
+   * Encode values to an {@link OutputStream}.
+   * <p>
+   * Important: this method does not write any list prefix to the output. To write a RLP encoded list of values, call
+   * {@link RLPWriter#writeList(Consumer)} on the provided writer.
+   *
+   * <p>
+   * The values are encoded into a single buffer, which is written to the stream in one operation.
+   *
+   * @param out The stream to write the RLP encoding to.
+   * @param fn A consumer that will be provided with a {@link RLPWriter} that can consume values.
+   * @throws IOException If an I/O error occurs while writing to the stream.
+   */
+  public static void encodeTo(OutputStream out, Consumer<RLPWriter> fn) throws IOException {
+    requireNonNull(out);
+    encodeToWriter(fn).writeTo(out);
+  }
+
+  /**
+   * Encode values to a {@link ByteBuffer}.
+   * <p>
+   * Important: this method does not write any list prefix to the output. To write a RLP encoded list of values, call
+   * {@link RLPWriter#writeList(Consumer)} on the provided writer.
+   *
+   * <p>
+   * The encoding is written at the current position of the buffer, and the position is advanced past it.
+   *
+   * @param buffer The buffer to write the RLP encoding to.
+   * @param fn A consumer that will be provided with a {@link RLPWriter} that can consume values.
+   * @throws java.nio.BufferOverflowException If there is insufficient space in the buffer.
+   */
+  public static void encodeTo(ByteBuffer buffer, Consumer<RLPWriter> fn) {
+    requireNonNull(buffer);
+    encodeToWriter(fn).writeTo(buffer);
+  }
+
+  /**
+   * Encode values to a Netty {@link ByteBuf}.
+   * <p>
+   * Important: this method does not write any list prefix to the output. To write a RLP encoded list of values, call
+   * {@link RLPWriter#writeList(Consumer)} on the provided writer.
+   *
+   * <p>
+   * The encoding is written at the writer index of the buffer, which will grow as necessary.
+   *
+   * @param byteBuf The buffer to write the RLP encoding to.
+   * @param fn A consumer that will be provided with a {@link RLPWriter} that can consume values.
+   */
+  public static void encodeToByteBuf(ByteBuf byteBuf, Consumer<RLPWriter> fn) {
+    requireNonNull(byteBuf);
+    encodeToWriter(fn).writeTo(byteBuf);
+  }
+
+  /**
+   * Encode values to a Vert.x {@link Buffer}.
+   * <p>
+   * Important: this method does not write any list prefix to the output. To write a RLP encoded list of values, call
+   * {@link RLPWriter#writeList(Consumer)} on the provided writer.
+   *
+   * @param buffer The buffer to append the RLP encoding to.
+   * @param fn A consumer that will be provided with a {@link RLPWriter} that can consume values.
+   */
+  public static void encodeToBuffer(Buffer buffer, Consumer<RLPWriter> fn) {
+    requireNonNull(buffer);
+    encodeToWriter(fn).writeTo(buffer);
+  }
+
+  private static BytesValueRLPWriter encodeToWriter(Consumer<RLPWriter> fn) {
+    requireNonNull(fn);
+    BytesValueRLPWriter writer = new BytesValueRLPWriter();
+    fn.accept(writer);
+    return writer;
+  }
+
   /**
    * Encode a value to a {@link Bytes} value.
    *
@@ -124,6 +242,94 @@ public final class RLP {
     return encodeByteArray(str.getBytes(Charsets.UTF_8));
   }
 
+  /**
+   * Compute the length of the RLP encoding of a value.
+   *
+   * @param value The value.
+   * @return The length of the encoding produced by {@link RLPWriter#writeValue(Bytes)}.
+   */
+  public static int encodedValueLength(Bytes value) {
+    requireNonNull(value);
+    int size = value.size();
+    if (size == 1 && (value.get(0) & 0xFF) <= 0x7f) {
+      return 1;
+    }
+    return lengthPrefixLength(size) + size;
+  }
+
+  /**
+   * Compute the length of the RLP encoding of a long.
+   *
+   * @param value The long.
+   * @return The length of the encoding produced by {@link RLPWriter#writeLong(long)}.
+   */
+  public static int encodedLongLength(long value) {
+    if (value <= 0x7f) {
+      return 1;
+    }
+    return 1 + bytesLength(value);
+  }
+
+  /**
+   * Compute the length of the RLP encoding of a {@link UInt256}.
+   *
+   * @param value The {@link UInt256}.
+   * @return The length of the encoding produced by {@link RLPWriter#writeUInt256(UInt256)}.
+   */
+  public static int encodedUInt256Length(UInt256 value) {
+    requireNonNull(value);
+    int bitLength = value.bitLength();
+    if (bitLength != 0 && bitLength <= 7) {
+      return 1;
+    }
+    return 1 + (bitLength + 7) / 8;
+  }
+
+  /**
+   * Compute the length of the RLP encoding of a big integer.
+   *
+   * @param value The big integer.
+   * @return The length of the encoding produced by {@link RLPWriter#writeBigInteger(BigInteger)}.
+   */
+  public static int encodedBigIntegerLength(BigInteger value) {
+    requireNonNull(value);
+    int signum = value.signum();
+    if (signum == 0) {
+      return 1;
+    }
+    if (signum < 0) {
+      return encodedValueLength(Bytes.wrap(value.toByteArray()));
+    }
+    int bitLength = value.bitLength();
+    if (bitLength <= 7) {
+      return 1;
+    }
+    int size = (bitLength + 7) / 8;
+    return lengthPrefixLength(size) + size;
+  }
+
+  /**
+   * Compute the length of the RLP encoding of a list.
+   *
+   * @param payloadLength The total length of the encoded values in the list.
+   * @return The length of the encoded list, including its prefix.
+   */
+  public static int encodedListLength(int payloadLength) {
+    checkArgument(payloadLength >= 0, "Invalid negative payload length");
+    return lengthPrefixLength(payloadLength) + payloadLength;
+  }
+
+  private static int lengthPrefixLength(int length) {
+    if (length <= 55) {
+      return 1;
+    }
+    return 1 + bytesLength(length);
+  }
+
+  private static int bytesLength(long value) {
+    return 8 - (Long.numberOfLeadingZeros(value) / 8);
+  }
+
   /**
    * Read and decode RLP from a {@link Bytes} value.
    * <p>
@@ -141,6 +347,28 @@ public final class RLP {
     return fn.apply(new BytesValueRLPReader(source));
   }
 
+  /**
+   * Decode an object from a {@link Bytes} value, using a codec.
+   *
+   * @param source The RLP encoded bytes.
+   * @param codec The codec for the object.
+   * @param <T> The type of the object.
+   * @return The decoded object.
+   * @throws InvalidRLPEncodingException If there is an error decoding the RLP source.
+   * @throws InvalidRLPTypeException If the RLP source does not match the structure of the object, or contains
+   *         additional bytes after the object.
+   */
+  public static <T> T decode(Bytes source, RLPCodec<T> codec) {
+    requireNonNull(source);
+    requireNonNull(codec);
+    BytesValueRLPReader reader = new BytesValueRLPReader(source);
+    T value = codec.decode(reader);
+    if (!reader.isComplete()) {
+      throw new InvalidRLPTypeException("Additional bytes present at the end of the encoding");
+    }
+    return value;
+  }
+
   /**
    * Read an RLP encoded list of values from a {@link Bytes} value.
    *
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.rlp;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+/**
+ * An encoder and decoder of objects of a type to and from RLP.
+ *
+ * <p>
+ * A codec encodes an object as a single RLP item, which may be a value or a list. Codecs are stateless and may be
+ * reused and shared across threads. Codecs for composite types are usually built from the codecs of their parts.
+ *
+ * @param <T> The type of objects encoded by this codec.
+ * @see RLP#encode(Object, RLPCodec)
+ * @see RLP#decode(net.consensys.cava.bytes.Bytes, RLPCodec)
+ * @see RLPCodecRegistry
+ */
+public interface RLPCodec<T> {
+
+  /**
+   * Create a codec for lists of objects, encoded as a RLP list of items.
+   *
+   * @param elementCodec The codec for the elements of the list.
+   * @param <T> The type of the elements of the list.
+   * @return A codec for lists.
+   */
+  static <T> RLPCodec<List<T>> listOf(RLPCodec<T> elementCodec) {
+    requireNonNull(elementCodec);
+    return new ListRLPCodec<>(elementCodec);
+  }
+
+  /**
+   * Write an object to an RLP output.
+   *
+   * @param value The object to encode.
+   * @param writer The RLP writer.
+   */
+  void encode(T value, RLPWriter writer);
+
+  /**
+   * Read an object from an RLP input.
+   *
+   * @param reader The RLP reader.
+   * @return The decoded object.
+   * @throws InvalidRLPEncodingException If there is an error decoding the RLP source.
+   * @throws InvalidRLPTypeException If the RLP source does not match the structure of the object.
+   * @throws EndOfRLPException If there are no more RLP values to read.
+   */
+  T decode(RLPReader reader);
+
+  /**
+   * Compute the length of the RLP encoding of an object, without encoding it.
+   *
+   * @param value The object.
+   * @return The length of the encoding written by {@link #encode(Object, RLPWriter)}.
+   */
+  int encodedSize(T value);
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.rlp;
+
+import static java.util.Objects.requireNonNull;
+
+import net.consensys.cava.bytes.Bytes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of {@link RLPCodec}s, by the type of objects they encode.
+ *
+ * <p>
+ * Modules register the codecs for their types, so that composite types and generic code can find the codecs of the
+ * types they contain.
+ */
+public final class RLPCodecRegistry {
+
+  private final Map<Class<?>, RLPCodec<?>> codecs = new ConcurrentHashMap<>();
+
+  /**
+   * Register a codec.
+   *
+   * @param type The type of objects encoded by the codec.
+   * @param codec The codec.
+   * @param <T> The type of objects encoded by the codec.
+   * @return This registry.
+   * @throws IllegalArgumentException If a codec is already registered for {@code type}.
+   */
+  public <T> RLPCodecRegistry register(Class<T> type, RLPCodec<T> codec) {
+    requireNonNull(type);
+    requireNonNull(codec);
+    if (codecs.putIfAbsent(type, codec) != null) {
+      throw new IllegalArgumentException("A codec is already registered for " + type.getName());
+    }
+    return this;
+  }
+
+  /**
+   * Get the codec for a type.
+   *
+   * @param type The type of objects encoded by the codec.
+   * @param <T> The type of objects encoded by the codec.
+   * @return The codec.
+   * @throws IllegalArgumentException If no codec is registered for {@code type}.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> RLPCodec<T> codec(Class<T> type) {
+    requireNonNull(type);
+    RLPCodec<?> codec = codecs.get(type);
+    if (codec == null) {
+      throw new IllegalArgumentException("No codec is registered for " + type.getName());
+    }
+    return (RLPCodec<T>) codec;
+  }
+
+  /**
+   * Check if a codec is registered for a type.
+   *
+   * @param type The type of objects.
+   * @return <tt>true</tt> if a codec is registered for {@code type}.
+   */
+  public boolean hasCodec(Class<?> type) {
+    requireNonNull(type);
+    return codecs.containsKey(type);
+  }
+
+  /**
+   * Encode an object using the codec registered for its type.
+   *
+   * @param type The type of the object.
+   * @param value The object to encode.
+   * @param <T> The type of the object.
+   * @return The RLP encoding in a {@link Bytes} value.
+   * @throws IllegalArgumentException If no codec is registered for {@code type}.
+   */
+  public <T> Bytes encode(Class<T> type, T value) {
+    return RLP.encode(value, codec(type));
+  }
+
+  /**
+   * Decode an object using the codec registered for its type.
+   *
+   * @param type The type of the object.
+   * @param source The RLP encoded bytes.
+   * @param <T> The type of the object.
+   * @return The decoded object.
+   * @throws IllegalArgumentException If no codec is registered for {@code type}.
+   * @throws InvalidRLPEncodingException If there is an error decoding the RLP source.
+   */
+  public <T> T decode(Class<T> type, Bytes source) {
+    return RLP.decode(source, codec(type));
+  }
+}
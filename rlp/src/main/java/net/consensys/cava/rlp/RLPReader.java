@@ -168,6 +168,19 @@ public interface RLPReader {
    */
   void skipNext();
 
+  /**
+   * Skip a number of values or lists in the RLP source.
+   *
+   * @param count The number of values or lists to skip.
+   * @throws InvalidRLPEncodingException If there is an error decoding the RLP source.
+   * @throws EndOfRLPException If there are fewer than {@code count} values left to read.
+   */
+  default void skip(int count) {
+    for (int i = 0; i < count; ++i) {
+      skipNext();
+    }
+  }
+
   /**
    * The number of remaining values to read.
    *
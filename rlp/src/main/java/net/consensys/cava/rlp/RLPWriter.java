@@ -110,4 +110,18 @@ public interface RLPWriter {
    * @param fn A consumer that will be provided with a {@link RLPWriter} that can consume values.
    */
   void writeList(Consumer<RLPWriter> fn);
+
+  /**
+   * Write a list of values, when the length of the encoded values is known in advance.
+   *
+   * <p>
+   * Writers may use the length to write the list prefix before the values, avoiding the need to buffer the values.
+   *
+   * @param payloadLength The total length of the encoded values in the list, not including the list prefix.
+   * @param fn A consumer that will be provided with a {@link RLPWriter} that can consume values.
+   * @throws IllegalArgumentException If the values written do not have a total length of {@code payloadLength}.
+   */
+  default void writeList(int payloadLength, Consumer<RLPWriter> fn) {
+    writeList(fn);
+  }
 }
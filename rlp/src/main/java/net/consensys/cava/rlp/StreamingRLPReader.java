@@ -0,0 +1,438 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package net.consensys.cava.rlp;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import net.consensys.cava.bytes.Bytes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A {@link RLPReader} that decodes RLP incrementally from a stream of bytes.
+ *
+ * <p>
+ * Only the item being read is held in memory, so a source may contain any number of items. A list that is too large to
+ * be held in memory, such as an export of a whole chain, can be read item by item after calling {@link #enterList()}.
+ *
+ * <p>
+ * Sources that have no bytes available yet, such as a Netty {@link ByteBuf} that is waiting on a network frame or a
+ * non-blocking channel, are supported: {@link #hasNext()} returns <tt>false</tt> until the next item can be read, and
+ * other methods throw {@link EndOfRLPException} without consuming anything, so reading can be resumed once more bytes
+ * are available.
+ *
+ * <p>
+ * Items that have already been read cannot be read again. Counting the {@link #remaining()} items requires all of them
+ * to be buffered, so it should be avoided on large sources.
+ */
+public final class StreamingRLPReader implements RLPReader {
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+  private static final int MAX_ITEM_SIZE = Integer.MAX_VALUE - 8;
+
+  @FunctionalInterface
+  private interface Source {
+    // returns the number of bytes read, 0 if none are available yet, or -1 at the end of the source
+    int read(byte[] bytes, int offset, int length) throws IOException;
+  }
+
+  /**
+   * Create a reader over an {@link InputStream}.
+   *
+   * @param in The stream to read from.
+   * @return A reader.
+   */
+  public static StreamingRLPReader create(InputStream in) {
+    requireNonNull(in);
+    return new StreamingRLPReader(in::read);
+  }
+
+  /**
+   * Create a reader over a {@link ReadableByteChannel}.
+   *
+   * <p>
+   * If the channel is in non-blocking mode, items are only read once they have fully arrived.
+   *
+   * @param channel The channel to read from.
+   * @return A reader.
+   */
+  public static StreamingRLPReader create(ReadableByteChannel channel) {
+    requireNonNull(channel);
+    return new StreamingRLPReader((bytes, offset, length) -> channel.read(ByteBuffer.wrap(bytes, offset, length)));
+  }
+
+  /**
+   * Create a reader over the readable bytes of a Netty {@link ByteBuf}.
+   *
+   * <p>
+   * Bytes are consumed from the buffer as they are read. Further bytes written to the buffer, for example as network
+   * frames arrive, will be read by later calls to the reader.
+   *
+   * @param byteBuf The buffer to read from.
+   * @return A reader.
+   */
+  public static StreamingRLPReader createFromByteBuf(ByteBuf byteBuf) {
+    requireNonNull(byteBuf);
+    return new StreamingRLPReader((bytes, offset, length) -> {
+      int count = Math.min(length, byteBuf.readableBytes());
+      byteBuf.readBytes(bytes, offset, count);
+      return count;
+    });
+  }
+
+  private final Source source;
+  private boolean endOfSource;
+  private byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+  private int start;
+  private int end;
+  // the number of bytes of the source that have been read or skipped
+  private long offset;
+  // the number of bytes to discard from the source before the next item
+  private long skipping;
+  // the number of items that have been read or skipped in the current list
+  private int position;
+
+  private long[] listEnds = new long[4];
+  private int[] listPositions = new int[4];
+  private int depth;
+
+  // the header of the next item, as parsed by readHeader
+  private int headerLength;
+  private long payloadLength;
+  private boolean nextIsList;
+
+  private StreamingRLPReader(Source source) {
+    this.source = source;
+  }
+
+  /**
+   * Check if the next item has arrived and can be read.
+   *
+   * <p>
+   * If the next item is a list, only its header needs to have arrived, so that a large list can be checked for and then
+   * read with {@link #enterList()} without buffering it. Reading the whole list with {@link #readList(Function)} may
+   * still throw {@link EndOfRLPException} until all of its bytes have arrived.
+   *
+   * @return <tt>true</tt> if there is a next item that is a list, or a value whose bytes are all available.
+   * @throws InvalidRLPEncodingException If there is an error decoding the RLP source.
+   */
+  public boolean hasNext() {
+    if (atEndOfList() || !fill(1) || !readHeader()) {
+      return false;
+    }
+    if (nextIsList) {
+      return true;
+    }
+    long itemLength = headerLength + payloadLength;
+    return itemLength <= MAX_ITEM_SIZE && fill((int) itemLength);
+  }
+
+  /**
+   * Start reading the items of the next list, without reading the whole list into memory.
+   *
+   * <p>
+   * The reader then reads the items of the list, until {@link #exitList()} is called.
+   *
+   * @throws InvalidRLPEncodingException If there is an error decoding the RLP source.
+   * @throws InvalidRLPTypeException If the next item is not a list.
+   * @throws EndOfRLPException If there are no more RLP values to read.
+   */
+  public void enterList() {
+    requireHeader();
+    if (!nextIsList) {
+      throw new InvalidRLPTypeException("Attempted to read a list but next item is a value");
+    }
+    consume(headerLength);
+    if (depth == listEnds.length) {
+      listEnds = Arrays.copyOf(listEnds, depth * 2);
+      listPositions = Arrays.copyOf(listPositions, depth * 2);
+    }
+    listEnds[depth] = offset + payloadLength;
+    listPositions[depth] = position + 1;
+    depth++;
+    position = 0;
+  }
+
+  /**
+   * Finish reading a list started with {@link #enterList()}, skipping any of its items that have not been read.
+   *
+   * @throws IllegalStateException If no list is being read.
+   */
+  public void exitList() {
+    checkState(depth > 0, "Not reading a list");
+    depth--;
+    consume(listEnds[depth] - offset);
+    position = listPositions[depth];
+  }
+
+  @Override
+  public Bytes readValue() {
+    requireItem();
+    if (nextIsList) {
+      throw new InvalidRLPTypeException("Attempted to read a value but next item is a list");
+    }
+    int itemLength = headerLength + (int) payloadLength;
+    Bytes item = Bytes.wrap(Arrays.copyOfRange(buffer, start, start + itemLength));
+    Bytes value = new BytesValueRLPReader(item).readValue();
+    consume(itemLength);
+    position++;
+    return value;
+  }
+
+  @Override
+  public <T> T readList(Function<RLPReader, T> fn) {
+    requireNonNull(fn);
+    requireItem();
+    if (!nextIsList) {
+      throw new InvalidRLPTypeException("Attempted to read a list but next item is a value");
+    }
+    int payloadStart = start + headerLength;
+    Bytes payload = Bytes.wrap(Arrays.copyOfRange(buffer, payloadStart, payloadStart + (int) payloadLength));
+    consume(headerLength + payloadLength);
+    position++;
+    return fn.apply(new BytesValueRLPReader(payload));
+  }
+
+  @Override
+  public boolean nextIsList() {
+    requireFirstByte();
+    return (buffer[start] & 0xFF) > 0xbf;
+  }
+
+  @Override
+  public boolean nextIsEmpty() {
+    requireFirstByte();
+    return (buffer[start] & 0xFF) == 0x80;
+  }
+
+  @Override
+  public void skipNext() {
+    requireHeader();
+    consume(headerLength + payloadLength);
+    position++;
+  }
+
+  /**
+   * The index of the next value or list to read.
+   *
+   * <p>
+   * Within a list started with {@link #enterList()}, this is the index within that list.
+   *
+   * @return The number of values or lists that have been read or skipped.
+   */
+  public int position() {
+    return position;
+  }
+
+  /**
+   * The number of remaining values to read.
+   *
+   * <p>
+   * All the remaining items of the current list, or of the source when not reading a list, are read into memory to
+   * count them.
+   *
+   * @return The number of remaining values to read.
+   * @throws InvalidRLPEncodingException If there is an error decoding the RLP source.
+   * @throws EndOfRLPException If the remaining items have not all arrived yet.
+   */
+  @Override
+  public int remaining() {
+    int length;
+    if (depth > 0) {
+      long listRemaining = listEnds[depth - 1] - offset;
+      if (listRemaining > MAX_ITEM_SIZE) {
+        throw new InvalidRLPEncodingException(
+            "RLP list of " + listRemaining + " bytes is too large to be read in memory");
+      }
+      if (!fill((int) listRemaining)) {
+        throw insufficientBytes(listRemaining);
+      }
+      length = (int) listRemaining;
+    } else {
+      if (!fill(0) && !endOfSource) {
+        throw new EndOfRLPException();
+      }
+      while (readMore(end - start + 1)) {
+        // buffer the rest of the source
+      }
+      if (!endOfSource) {
+        throw new EndOfRLPException();
+      }
+      length = end - start;
+    }
+    return new BytesValueRLPReader(Bytes.wrap(buffer, start, length)).remaining();
+  }
+
+  /**
+   * Check if all values have been read.
+   *
+   * <p>
+   * Within a list, this is <tt>true</tt> once all the items of the list have been read. Otherwise, it is <tt>true</tt>
+   * when no more bytes are available from the source.
+   *
+   * @return <tt>true</tt> if all values have been read.
+   */
+  @Override
+  public boolean isComplete() {
+    if (depth > 0) {
+      return atEndOfList();
+    }
+    return !fill(1);
+  }
+
+  private boolean atEndOfList() {
+    return depth > 0 && offset == listEnds[depth - 1];
+  }
+
+  private void requireFirstByte() {
+    if (atEndOfList() || !fill(1)) {
+      throw new EndOfRLPException();
+    }
+  }
+
+  private void requireHeader() {
+    requireFirstByte();
+    if (!readHeader()) {
+      throw insufficientBytes(headerLength);
+    }
+  }
+
+  private void requireItem() {
+    requireHeader();
+    long itemLength = headerLength + payloadLength;
+    if (itemLength > MAX_ITEM_SIZE) {
+      throw new InvalidRLPEncodingException("RLP item of " + itemLength + " bytes is too large to be read in memory");
+    }
+    if (!fill((int) itemLength)) {
+      throw insufficientBytes(itemLength);
+    }
+  }
+
+  private RLPException insufficientBytes(long expected) {
+    if (!endOfSource) {
+      // more bytes may arrive later
+      return new EndOfRLPException();
+    }
+    return new InvalidRLPEncodingException(
+        "Insufficient bytes in RLP encoding: expected " + expected + " but have only " + (end - start));
+  }
+
+  // parses the header of the next item, whose first byte must be available
+  private boolean readHeader() {
+    int prefix = buffer[start] & 0xFF;
+    if (prefix <= 0x7f) {
+      setHeader(0, 1, false);
+    } else if (prefix <= 0xb7) {
+      setHeader(1, prefix - 0x80, false);
+    } else if (prefix <= 0xbf) {
+      if (!readLongHeader(prefix - 0xb7, false)) {
+        return false;
+      }
+    } else if (prefix <= 0xf7) {
+      setHeader(1, prefix - 0xc0, true);
+    } else if (!readLongHeader(prefix - 0xf7, true)) {
+      return false;
+    }
+
+    if (depth > 0 && offset + headerLength + payloadLength > listEnds[depth - 1]) {
+      throw new InvalidRLPEncodingException("RLP item extends past the end of its enclosing list");
+    }
+    return true;
+  }
+
+  private boolean readLongHeader(int lengthOfLength, boolean isList) {
+    headerLength = 1 + lengthOfLength;
+    if (!fill(headerLength)) {
+      return false;
+    }
+    if (buffer[start + 1] == 0) {
+      throw new InvalidRLPEncodingException(
+          "RLP " + (isList ? "list" : "value") + " length contains leading zero bytes");
+    }
+    long length = 0;
+    for (int i = 1; i <= lengthOfLength; ++i) {
+      length = (length << 8) | (buffer[start + i] & 0xFF);
+    }
+    if (length < 0) {
+      throw new InvalidRLPEncodingException("RLP length is too large");
+    }
+    setHeader(headerLength, length, isList);
+    return true;
+  }
+
+  private void setHeader(int headerLength, long payloadLength, boolean isList) {
+    this.headerLength = headerLength;
+    this.payloadLength = payloadLength;
+    this.nextIsList = isList;
+  }
+
+  private void consume(long length) {
+    offset += length;
+    int fromBuffer = (int) Math.min(length, end - start);
+    start += fromBuffer;
+    skipping += length - fromBuffer;
+  }
+
+  // ensures that at least the given number of bytes are buffered
+  private boolean fill(int required) {
+    while (skipping > 0) {
+      if (start == end && !readMore(1)) {
+        return false;
+      }
+      int discarded = (int) Math.min(skipping, end - start);
+      start += discarded;
+      skipping -= discarded;
+    }
+    while (end - start < required) {
+      if (!readMore(required)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean readMore(int required) {
+    if (endOfSource) {
+      return false;
+    }
+    if (end == buffer.length || buffer.length - start < required) {
+      int available = end - start;
+      byte[] destination = buffer.length < required ? new byte[Math.max(required, buffer.length * 2)] : buffer;
+      System.arraycopy(buffer, start, destination, 0, available);
+      buffer = destination;
+      start = 0;
+      end = available;
+    }
+    int read;
+    try {
+      read = source.read(buffer, end, buffer.length - end);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (read < 0) {
+      endOfSource = true;
+      return false;
+    }
+    end += read;
+    return read > 0;
+  }
+}
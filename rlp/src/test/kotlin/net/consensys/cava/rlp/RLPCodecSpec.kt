@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.rlp
+
+import com.winterbe.expekt.should
+import net.consensys.cava.bytes.Bytes
+import org.jetbrains.spek.api.Spek
+import org.jetbrains.spek.api.dsl.describe
+import org.jetbrains.spek.api.dsl.it
+import org.junit.jupiter.api.assertThrows
+
+private object StringCodec : RLPCodec<String> {
+  override fun encode(value: String, writer: RLPWriter) = writer.writeString(value)
+
+  override fun decode(reader: RLPReader): String = reader.readString()
+
+  override fun encodedSize(value: String): Int = RLP.encodedValueLength(Bytes.wrap(value.toByteArray()))
+}
+
+class RLPCodecSpec : Spek({
+
+  describe("A RLP codec") {
+
+    it("should encode and decode values") {
+      val encoded = RLP.encode("dog", StringCodec)
+      encoded.should.equal(RLP.encodeString("dog"))
+      RLP.decode(encoded, StringCodec).should.equal("dog")
+    }
+
+    it("should encode and decode lists") {
+      val codec = RLPCodec.listOf(StringCodec)
+      val values = (0 until 20).map { "value $it" }
+      val encoded = RLP.encode(values, codec)
+      encoded.size().should.equal(codec.encodedSize(values))
+      encoded.should.equal(RLP.encodeList { writer -> values.forEach { writer.writeString(it) } })
+      RLP.decode(encoded, codec).should.equal(values)
+    }
+
+    it("should encode and decode nested lists") {
+      val codec = RLPCodec.listOf(RLPCodec.listOf(StringCodec))
+      val values = listOf(listOf("a", "b"), emptyList(), listOf("c"))
+      RLP.decode(RLP.encode(values, codec), codec).should.equal(values)
+    }
+
+    it("should reject additional bytes") {
+      assertThrows<InvalidRLPTypeException> {
+        RLP.decode(Bytes.concatenate(RLP.encodeString("dog"), RLP.encodeString("cat")), StringCodec)
+      }
+    }
+  }
+
+  describe("A RLP codec registry") {
+
+    it("should find registered codecs") {
+      val registry = RLPCodecRegistry().register(String::class.java, StringCodec)
+      registry.hasCodec(String::class.java).should.be.`true`
+      registry.codec(String::class.java).should.equal(StringCodec)
+      registry.decode(String::class.java, registry.encode(String::class.java, "dog")).should.equal("dog")
+    }
+
+    it("should reject unknown types") {
+      val registry = RLPCodecRegistry()
+      registry.hasCodec(String::class.java).should.be.`false`
+      assertThrows<IllegalArgumentException> { registry.codec(String::class.java) }
+    }
+
+    it("should reject duplicate registrations") {
+      val registry = RLPCodecRegistry().register(String::class.java, StringCodec)
+      assertThrows<IllegalArgumentException> { registry.register(String::class.java, StringCodec) }
+    }
+  }
+})
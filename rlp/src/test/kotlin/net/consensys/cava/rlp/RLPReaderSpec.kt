@@ -217,6 +217,41 @@ class RLPReaderSpec : Spek({
         }).should.equal(expected)
       }
 
+      it("should count remaining items as they are read") {
+        RLP.decodeList(SHORT_LIST, { reader ->
+          val subReader = reader as IndexedRLPReader
+          subReader.remaining().should.equal(11)
+          subReader.readString().should.equal("asdf")
+          subReader.position().should.equal(1)
+          subReader.remaining().should.equal(10)
+          subReader.skipNext()
+          subReader.remaining().should.equal(9)
+          subReader.readString().should.equal("zxcv")
+          subReader.skip(7)
+          subReader.remaining().should.equal(1)
+          subReader.readString().should.equal("qwer")
+          subReader.isComplete().should.be.`true`
+          subReader.remaining().should.equal(0)
+        })
+      }
+
+      it("should move to items in a list") {
+        RLP.decodeList(LONG_LIST, { reader ->
+          val subReader = reader as IndexedRLPReader
+          subReader.seek(30)
+          subReader.readList { it.readString() }.should.equal("asdf")
+          subReader.isComplete().should.be.`true`
+          subReader.seek(1)
+          subReader.position().should.equal(1)
+          subReader.remaining().should.equal(30)
+          subReader.readList { it.skipNext(); it.readString() }.should.equal("qwer")
+          subReader.seek(31)
+          subReader.isComplete().should.be.`true`
+          assertThrows<IndexOutOfBoundsException> { subReader.seek(32) }
+          assertThrows<EndOfRLPException> { subReader.skip(1) }
+        })
+      }
+
       it("should throw an exception if there are zero bytes in the list length") {
         assertThrows<InvalidRLPEncodingException> { RLP.decodeList(Bytes.fromHexString("0xf9000112"), { _, _ -> }) }
       }
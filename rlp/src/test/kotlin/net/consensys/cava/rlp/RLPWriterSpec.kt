@@ -16,12 +16,17 @@
 package net.consensys.cava.rlp
 
 import com.winterbe.expekt.should
+import io.netty.buffer.Unpooled
+import io.vertx.core.buffer.Buffer
 import net.consensys.cava.bytes.Bytes
 import net.consensys.cava.units.bigints.UInt256
 import org.jetbrains.spek.api.Spek
 import org.jetbrains.spek.api.dsl.describe
 import org.jetbrains.spek.api.dsl.it
+import org.junit.jupiter.api.assertThrows
+import java.io.ByteArrayOutputStream
 import java.math.BigInteger
+import java.nio.ByteBuffer
 
 class RLPWriterSpec : Spek({
 
@@ -151,6 +156,106 @@ class RLPWriterSpec : Spek({
         val output = RLP.encode { it.writeRLP(RLP.encodeByteArray("abc".toByteArray())) }
         RLP.decodeString(output).should.equal("abc")
       }
+
+      it("should write long lists") {
+        val value = "a".repeat(56)
+        RLP.encodeList { listWriter ->
+          listWriter.writeString(value)
+        }.should.equal(Bytes.fromHexString("f83ab838" + "61".repeat(56)))
+      }
+
+      it("should write nested long lists") {
+        val value = "a".repeat(56)
+        RLP.encodeList { listWriter ->
+          listWriter.writeList { subListWriter -> subListWriter.writeString(value) }
+          listWriter.writeInt(1)
+        }.should.equal(Bytes.fromHexString("f83df83ab838" + "61".repeat(56) + "01"))
+      }
+    }
+
+    describe("Computing encoded lengths") {
+      it("should compute the length of values") {
+        for (value in listOf(Bytes.EMPTY, Bytes.of(0x7f), Bytes.of(0x80), Bytes.wrap(ByteArray(56)))) {
+          RLP.encodedValueLength(value).should.equal(RLP.encodeValue(value).size())
+        }
+      }
+
+      it("should compute the length of integers") {
+        for (value in listOf(0L, 0x7fL, 0x80L, 100000L, Long.MAX_VALUE)) {
+          RLP.encodedLongLength(value).should.equal(RLP.encodeLong(value).size())
+          RLP.encodedBigIntegerLength(BigInteger.valueOf(value))
+            .should.equal(RLP.encodeBigInteger(BigInteger.valueOf(value)).size())
+          RLP.encodedUInt256Length(UInt256.valueOf(value))
+            .should.equal(RLP.encode { writer -> writer.writeUInt256(UInt256.valueOf(value)) }.size())
+        }
+      }
+
+      it("should write a list of known length") {
+        val value = "a".repeat(56)
+        val payloadLength = RLP.encodedValueLength(Bytes.wrap(value.toByteArray())) + 1
+        RLP.encodedListLength(payloadLength).should.equal(61)
+        RLP.encodeList(payloadLength) { listWriter ->
+          listWriter.writeString(value)
+          listWriter.writeInt(1)
+        }.should.equal(RLP.encodeList { listWriter ->
+          listWriter.writeString(value)
+          listWriter.writeInt(1)
+        })
+      }
+
+      it("should reject a list that does not match its length") {
+        assertThrows<IllegalArgumentException> {
+          RLP.encodeList(2) { listWriter -> listWriter.writeString("dog") }
+        }
+      }
+    }
+
+    describe("Writing to an output") {
+      val expected = RLP.encodeList { listWriter ->
+        listWriter.writeString("dog")
+        listWriter.writeString("a".repeat(60))
+      }
+
+      val fn = { writer: RLPWriter ->
+        writer.writeList { listWriter ->
+          listWriter.writeString("dog")
+          listWriter.writeString("a".repeat(60))
+        }
+      }
+
+      it("should not retain unused capacity in the encoded value") {
+        val encoded = RLP.encode(fn)
+        val array = encoded.toArrayUnsafe()
+        array.size.should.equal(encoded.size())
+        // the whole array is wrapped, so it is returned without copying
+        (encoded.toArrayUnsafe() === array).should.be.`true`
+      }
+
+      it("should write to an output stream") {
+        val out = ByteArrayOutputStream()
+        RLP.encodeTo(out, fn)
+        Bytes.wrap(out.toByteArray()).should.equal(expected)
+      }
+
+      it("should write to a byte buffer") {
+        val buffer = ByteBuffer.allocate(100)
+        buffer.put(1)
+        RLP.encodeTo(buffer, fn)
+        buffer.position().should.equal(1 + expected.size())
+        Bytes.wrap(buffer.array(), 1, expected.size()).should.equal(expected)
+      }
+
+      it("should write to a netty buffer") {
+        val byteBuf = Unpooled.buffer(1)
+        RLP.encodeToByteBuf(byteBuf, fn)
+        Bytes.wrapByteBuf(byteBuf, 0, byteBuf.writerIndex()).should.equal(expected)
+      }
+
+      it("should write to a vert.x buffer") {
+        val buffer = Buffer.buffer()
+        RLP.encodeToBuffer(buffer, fn)
+        Bytes.wrapBuffer(buffer).should.equal(expected)
+      }
     }
   }
 })
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018, ConsenSys Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.consensys.cava.rlp
+
+import com.winterbe.expekt.should
+import io.netty.buffer.Unpooled
+import net.consensys.cava.bytes.Bytes
+import org.jetbrains.spek.api.Spek
+import org.jetbrains.spek.api.dsl.describe
+import org.jetbrains.spek.api.dsl.it
+import org.junit.jupiter.api.assertThrows
+import java.io.ByteArrayInputStream
+import java.io.FilterInputStream
+import java.nio.channels.Channels
+
+class StreamingRLPReaderSpec : Spek({
+
+  describe("A streaming RLP reader") {
+
+    val large = "a".repeat(20000)
+    val encoded = RLP.encode { writer ->
+      writer.writeString("dog")
+      writer.writeList { listWriter ->
+        listWriter.writeString("cat")
+        listWriter.writeInt(1000)
+      }
+      writer.writeString(large)
+      writer.writeInt(7)
+    }
+
+    it("should read items from an input stream") {
+      val reader = StreamingRLPReader.create(ByteArrayInputStream(encoded.toArrayUnsafe()))
+      reader.hasNext().should.be.`true`
+      reader.readString().should.equal("dog")
+      reader.nextIsList().should.be.`true`
+      reader.readList { listReader -> Pair(listReader.readString(), listReader.readInt()) }
+        .should.equal(Pair("cat", 1000))
+      reader.readString().should.equal(large)
+      reader.position().should.equal(3)
+      reader.readInt().should.equal(7)
+      reader.hasNext().should.be.`false`
+      reader.isComplete().should.be.`true`
+      assertThrows<EndOfRLPException> { reader.readValue() }
+    }
+
+    it("should read items from a channel") {
+      val reader = StreamingRLPReader.create(Channels.newChannel(ByteArrayInputStream(encoded.toArrayUnsafe())))
+      reader.readString().should.equal("dog")
+      reader.skip(2)
+      reader.readInt().should.equal(7)
+      reader.isComplete().should.be.`true`
+    }
+
+    it("should skip large items without reading them") {
+      val reader = StreamingRLPReader.create(ByteArrayInputStream(encoded.toArrayUnsafe()))
+      reader.skip(2)
+      reader.position().should.equal(2)
+      reader.skipNext()
+      reader.readInt().should.equal(7)
+    }
+
+    it("should count the remaining items") {
+      val reader = StreamingRLPReader.create(ByteArrayInputStream(encoded.toArrayUnsafe()))
+      reader.skipNext()
+      reader.remaining().should.equal(3)
+      reader.enterList()
+      reader.remaining().should.equal(2)
+      reader.readString().should.equal("cat")
+      reader.remaining().should.equal(1)
+      reader.exitList()
+      reader.remaining().should.equal(2)
+      reader.readString().should.equal(large)
+      reader.readInt().should.equal(7)
+      reader.remaining().should.equal(0)
+    }
+
+    it("should not count the remaining items before they have arrived") {
+      val byteBuf = Unpooled.buffer()
+      byteBuf.writeBytes(encoded.slice(0, 9).toArrayUnsafe())
+      val reader = StreamingRLPReader.createFromByteBuf(byteBuf)
+      reader.readString().should.equal("dog")
+      reader.enterList()
+      assertThrows<EndOfRLPException> { reader.remaining() }
+      byteBuf.writeBytes(encoded.slice(9).toArrayUnsafe())
+      reader.remaining().should.equal(2)
+      reader.readString().should.equal("cat")
+      reader.readInt().should.equal(1000)
+      // more bytes may still be written to the buffer, so the end of the source is not known
+      reader.exitList()
+      assertThrows<EndOfRLPException> { reader.remaining() }
+    }
+
+    it("should read the items of a list one at a time") {
+      val list = RLP.encodeList { writer ->
+        for (i in 0 until 1000) {
+          writer.writeList { itemWriter ->
+            itemWriter.writeInt(i)
+            itemWriter.writeString("item $i")
+          }
+        }
+      }
+      val stream = Bytes.concatenate(list, RLP.encodeString("after")).toArrayUnsafe()
+      val reader = StreamingRLPReader.create(ByteArrayInputStream(stream))
+      reader.enterList()
+      var count = 0
+      while (reader.hasNext()) {
+        reader.readList { itemReader ->
+          itemReader.readInt().should.equal(count)
+          itemReader.readString().should.equal("item $count")
+        }
+        count++
+      }
+      reader.isComplete().should.be.`true`
+      reader.exitList()
+      count.should.equal(1000)
+      reader.position().should.equal(1)
+      reader.readString().should.equal("after")
+    }
+
+    it("should read a list that is larger than its buffer without buffering the list") {
+      val list = RLP.encodeList { writer ->
+        for (i in 0 until 10000) {
+          writer.writeString("item $i ".repeat(10))
+        }
+      }
+      var bytesRead = 0L
+      val input = object : FilterInputStream(ByteArrayInputStream(list.toArrayUnsafe())) {
+        override fun read(b: ByteArray, off: Int, len: Int): Int {
+          val read = super.read(b, off, len)
+          if (read > 0) {
+            bytesRead += read
+          }
+          return read
+        }
+      }
+      val reader = StreamingRLPReader.create(input)
+      reader.hasNext().should.be.`true`
+      reader.enterList()
+      reader.readString().should.equal("item 0 ".repeat(10))
+      bytesRead.should.be.below(list.size() / 10L)
+      var count = 1
+      while (reader.hasNext()) {
+        reader.readString().should.equal("item $count ".repeat(10))
+        count++
+      }
+      reader.exitList()
+      count.should.equal(10000)
+      reader.isComplete().should.be.`true`
+    }
+
+    it("should skip the unread items of a list") {
+      val reader = StreamingRLPReader.create(ByteArrayInputStream(encoded.toArrayUnsafe()))
+      reader.skipNext()
+      reader.enterList()
+      reader.readString().should.equal("cat")
+      reader.exitList()
+      reader.readString().should.equal(large)
+    }
+
+    it("should resume reading when more bytes arrive") {
+      val byteBuf = Unpooled.buffer()
+      val reader = StreamingRLPReader.createFromByteBuf(byteBuf)
+      reader.hasNext().should.be.`false`
+
+      val bytes = encoded.toArrayUnsafe()
+      byteBuf.writeBytes(bytes, 0, 12)
+      reader.readString().should.equal("dog")
+      reader.hasNext().should.be.`true`
+      reader.skipNext()
+      reader.hasNext().should.be.`false`
+      assertThrows<EndOfRLPException> { reader.readString() }
+
+      byteBuf.writeBytes(bytes, 12, 10000)
+      reader.hasNext().should.be.`false`
+      byteBuf.writeBytes(bytes, 10012, bytes.size - 10012)
+      reader.hasNext().should.be.`true`
+      reader.readString().should.equal(large)
+      reader.readInt().should.equal(7)
+      reader.isComplete().should.be.`true`
+    }
+
+    it("should fail on a truncated stream") {
+      val truncated = encoded.slice(0, encoded.size() - 100).toArray()
+      val reader = StreamingRLPReader.create(ByteArrayInputStream(truncated))
+      reader.skip(2)
+      assertThrows<InvalidRLPEncodingException> { reader.readString() }
+    }
+  }
+})